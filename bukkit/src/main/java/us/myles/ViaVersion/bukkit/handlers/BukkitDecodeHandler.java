@@ -42,17 +42,21 @@ public class BukkitDecodeHandler extends ByteToMessageDecoder {
 
             if (info.isActive()) {
                 // Handle ID
-                int id = Type.VAR_INT.read(bytebuf);
+                int id = Type.VAR_INT_PRIMITIVE.readPrimitive(bytebuf);
                 // Transform
                 ByteBuf newPacket = ctx.alloc().buffer();
                 try {
                     if (id == PacketWrapper.PASSTHROUGH_ID) {
                         newPacket.writeBytes(bytebuf);
                     } else {
-                        PacketWrapper wrapper = new PacketWrapper(id, bytebuf, info);
-                        ProtocolInfo protInfo = info.get(ProtocolInfo.class);
-                        protInfo.getPipeline().transform(Direction.INCOMING, protInfo.getState(), wrapper);
-                        wrapper.writeToBuffer(newPacket);
+                        PacketWrapper wrapper = PacketWrapper.obtain(id, bytebuf, info);
+                        try {
+                            ProtocolInfo protInfo = info.get(ProtocolInfo.class);
+                            protInfo.getPipeline().transform(Direction.INCOMING, protInfo.getState(), wrapper);
+                            wrapper.writeToBuffer(newPacket);
+                        } finally {
+                            wrapper.release();
+                        }
                     }
 
                     bytebuf.clear();
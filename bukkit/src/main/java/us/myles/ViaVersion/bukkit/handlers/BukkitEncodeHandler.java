@@ -65,22 +65,31 @@ public class BukkitEncodeHandler extends MessageToByteEncoder implements ViaHand
         // Increment sent
         info.incrementSent();
         if (info.isActive()) {
+            ProtocolInfo protInfo = info.get(ProtocolInfo.class);
+            // Packets of which only the id changes are rewritten in place
+            if (protInfo.getPipeline().transformPassthrough(Direction.OUTGOING, protInfo.getState(), bytebuf)) {
+                return;
+            }
             // Handle ID
-            int id = Type.VAR_INT.read(bytebuf);
-            // Transform
-            ByteBuf oldPacket = bytebuf.copy();
-            bytebuf.clear();
-
+            int id = Type.VAR_INT_PRIMITIVE.readPrimitive(bytebuf);
+            // Transform, the old packet is read in place and the new one is written to a separate buffer.
+            // The encoder has to output into bytebuf, so the new packet is copied back once.
+            ByteBuf newPacket = bytebuf.alloc().buffer(bytebuf.readableBytes());
             try {
-                PacketWrapper wrapper = new PacketWrapper(id, oldPacket, info);
-                ProtocolInfo protInfo = info.get(ProtocolInfo.class);
-                protInfo.getPipeline().transform(Direction.OUTGOING, protInfo.getState(), wrapper);
-                wrapper.writeToBuffer(bytebuf);
+                PacketWrapper wrapper = PacketWrapper.obtain(id, bytebuf, info);
+                try {
+                    protInfo.getPipeline().transform(Direction.OUTGOING, protInfo.getState(), wrapper);
+                    wrapper.writeToBuffer(newPacket);
+                } finally {
+                    wrapper.release();
+                }
+                bytebuf.clear();
+                bytebuf.writeBytes(newPacket);
             } catch (Exception e) {
                 bytebuf.clear();
                 throw e;
             } finally {
-                oldPacket.release();
+                newPacket.release();
             }
         }
     }
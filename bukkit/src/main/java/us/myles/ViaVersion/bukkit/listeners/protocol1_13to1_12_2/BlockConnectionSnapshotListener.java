@@ -0,0 +1,70 @@
+package us.myles.ViaVersion.bukkit.listeners.protocol1_13to1_12_2;
+
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import us.myles.ViaVersion.ViaVersionPlugin;
+import us.myles.ViaVersion.bukkit.listeners.ViaBukkitListener;
+import us.myles.ViaVersion.bukkit.providers.BukkitBlockConnectionProvider;
+
+import java.util.List;
+
+/**
+ * Refreshes the chunk snapshots of the block connection provider when blocks are changed.
+ */
+public class BlockConnectionSnapshotListener extends ViaBukkitListener {
+    private final BukkitBlockConnectionProvider provider;
+
+    public BlockConnectionSnapshotListener(ViaVersionPlugin plugin, BukkitBlockConnectionProvider provider) {
+        super(plugin, null);
+        this.provider = provider;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void placeBlock(BlockPlaceEvent e) {
+        invalidate(e.getBlockPlaced());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void breakBlock(BlockBreakEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void burnBlock(BlockBurnEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void pistonExtend(BlockPistonExtendEvent e) {
+        invalidate(e.getBlock());
+        invalidate(e.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void pistonRetract(BlockPistonRetractEvent e) {
+        invalidate(e.getBlock());
+        invalidate(e.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void explode(EntityExplodeEvent e) {
+        invalidate(e.blockList());
+    }
+
+    private void invalidate(List<Block> blocks) {
+        for (Block block : blocks) {
+            invalidate(block);
+        }
+    }
+
+    private void invalidate(Block block) {
+        provider.invalidate(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+}
@@ -14,6 +14,7 @@ import us.myles.ViaVersion.api.boss.BossColor;
 import us.myles.ViaVersion.api.boss.BossStyle;
 import us.myles.ViaVersion.api.command.ViaVersionCommand;
 import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.protocol.PacketStats;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
 import us.myles.ViaVersion.boss.ViaBossBar;
 import us.myles.ViaVersion.bukkit.util.ProtocolSupportUtil;
@@ -105,6 +106,11 @@ public class BukkitViaAPI implements ViaAPI<Player>, ViaVersionAPI {
         return outputSet;
     }
 
+    @Override
+    public PacketStats getPacketStats() {
+        return Via.getManager().getPacketStats();
+    }
+
     @Override
     public boolean isCompatSpigotBuild() {
         return plugin.isCompatSpigotBuild();
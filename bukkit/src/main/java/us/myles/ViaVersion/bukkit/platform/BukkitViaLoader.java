@@ -17,6 +17,7 @@ import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.bukkit.classgenerator.ClassGenerator;
 import us.myles.ViaVersion.bukkit.listeners.UpdateListener;
 import us.myles.ViaVersion.bukkit.listeners.multiversion.PlayerSneakListener;
+import us.myles.ViaVersion.bukkit.listeners.protocol1_13to1_12_2.BlockConnectionSnapshotListener;
 import us.myles.ViaVersion.bukkit.listeners.protocol1_9to1_8.*;
 import us.myles.ViaVersion.bukkit.providers.BukkitBlockConnectionProvider;
 import us.myles.ViaVersion.bukkit.providers.BukkitInventoryQuickMoveProvider;
@@ -110,7 +111,15 @@ public class BukkitViaLoader implements ViaPlatformLoader {
             Via.getManager().getProviders().use(InventoryQuickMoveProvider.class, new BukkitInventoryQuickMoveProvider());
         }
         if (Via.getConfig().getBlockConnectionMethod().equalsIgnoreCase("world")) {
-            Via.getManager().getProviders().use(BlockConnectionProvider.class, new BukkitBlockConnectionProvider());
+            final BukkitBlockConnectionProvider blockConnectionProvider = new BukkitBlockConnectionProvider();
+            Via.getManager().getProviders().use(BlockConnectionProvider.class, blockConnectionProvider);
+            storeListener(new BlockConnectionSnapshotListener(plugin, blockConnectionProvider)).register();
+            tasks.add(Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+                @Override
+                public void run() {
+                    blockConnectionProvider.updateSnapshots();
+                }
+            }, 1L, 1L));
         }
         Via.getManager().getProviders().use(HandItemProvider.class, new HandItemProvider() {
             @Override
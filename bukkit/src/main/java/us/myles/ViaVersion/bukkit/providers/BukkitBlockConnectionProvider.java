@@ -1,41 +1,227 @@
 package us.myles.ViaVersion.bukkit.providers;
 
 import org.bukkit.Bukkit;
-import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.minecraft.Position;
+import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.providers.BlockConnectionProvider;
+import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.data.MappingData;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Looks up blocks in the world of the player.
+ * <p>
+ * Lookups come from the network threads, so they are served from chunk snapshots which are taken on the main thread
+ * by {@link #updateSnapshots()}. Chunks without a snapshot are read as air and get one on the next tick.
+ * Block changes sent by the server are applied on top of the snapshots, and blocks in a chunk sent by the server
+ * are read from the chunk itself while it's translated.
+ * Snapshots are taken again when blocks in the chunk are changed or the chunk is sent, and after {@link #MAX_SNAPSHOT_AGE} ticks.
+ */
 public class BukkitBlockConnectionProvider extends BlockConnectionProvider {
-    private Chunk lastChunk;
+    private static final int MAX_SNAPSHOT_AGE = 40;
+    private static final int MAX_SNAPSHOTS_PER_TICK = 32;
+    private static final int MAX_SNAPSHOTS_PER_WORLD = 512;
+    private final Map<UUID, UUID> playerWorlds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, WorldSnapshots> worlds = new ConcurrentHashMap<>();
+    private final ThreadLocal<Chunk> translatedChunk = new ThreadLocal<>();
+    private int tick;
 
     @Override
     public int getWorldBlockData(UserConnection user, Position position) {
-        UUID uuid = user.get(ProtocolInfo.class).getUuid();
-        Player player = Bukkit.getPlayer(uuid);
-        if (player != null) {
-            World world = player.getWorld();
-            int x = (int) (position.getX() >> 4);
-            int z = (int) (position.getZ() >> 4);
-            if (world.isChunkLoaded(x, z)) {
-                Chunk c = getChunk(world, x, z);
-                Block b = c.getBlock(position.getX().intValue(), position.getY().intValue(), position.getZ().intValue());
-                return b.getTypeId() << 4 | b.getData();
+        Snapshot snapshot = getSnapshot(user, position.getX().intValue() >> 4, position.getZ().intValue() >> 4);
+        if (snapshot == null) return 0;
+        return snapshot.getWorldBlockData(position.getX().intValue(), position.getY().intValue(), position.getZ().intValue());
+    }
+
+    @Override
+    public int getBlockdata(UserConnection connection, Position position) {
+        return getBlockData(connection, position.getX().intValue(), position.getY().intValue(), position.getZ().intValue());
+    }
+
+    @Override
+    public int getBlockData(UserConnection connection, int x, int y, int z) {
+        if (y < 0 || y > 255) return 0;
+
+        Chunk chunk = translatedChunk.get();
+        if (chunk != null && chunk.getX() == x >> 4 && chunk.getZ() == z >> 4) {
+            ChunkSection section = chunk.getSections()[y >> 4];
+            if (section != null) return section.getFlatBlock(x & 0xF, y & 0xF, z & 0xF);
+            if (chunk.isGroundUp()) return 0;
+        }
+
+        Snapshot snapshot = getSnapshot(connection, x >> 4, z >> 4);
+        return snapshot == null ? 0 : snapshot.getBlockData(x, y, z);
+    }
+
+    @Override
+    public void blockChanged(UserConnection connection, int x, int y, int z, int blockState) {
+        if (y < 0 || y > 255) return;
+        WorldSnapshots snapshots = getWorldSnapshots(connection);
+        if (snapshots == null) return;
+        Snapshot snapshot = snapshots.snapshots.get(toKey(x >> 4, z >> 4));
+        // Without a snapshot there's nothing to correct, the next one is taken from the changed world
+        if (snapshot != null) {
+            snapshot.changes.put(toIndex(x, y, z), blockState);
+        }
+    }
+
+    @Override
+    public void startChunk(UserConnection connection, Chunk chunk) {
+        translatedChunk.set(chunk);
+    }
+
+    @Override
+    public void finishChunk(UserConnection connection, Chunk chunk) {
+        translatedChunk.remove();
+        WorldSnapshots snapshots = getWorldSnapshots(connection);
+        if (snapshots != null) {
+            snapshots.refresh(chunk.getX(), chunk.getZ());
+        }
+    }
+
+    private Snapshot getSnapshot(UserConnection user, int chunkX, int chunkZ) {
+        WorldSnapshots snapshots = getWorldSnapshots(user);
+        return snapshots == null ? null : snapshots.get(chunkX, chunkZ);
+    }
+
+    private WorldSnapshots getWorldSnapshots(UserConnection user) {
+        UUID worldId = playerWorlds.get(user.get(ProtocolInfo.class).getUuid());
+        if (worldId == null) return null;
+        WorldSnapshots snapshots = worlds.get(worldId);
+        if (snapshots == null) {
+            WorldSnapshots created = new WorldSnapshots();
+            snapshots = worlds.putIfAbsent(worldId, created);
+            if (snapshots == null) snapshots = created;
+        }
+        return snapshots;
+    }
+
+    /**
+     * Take snapshots of the chunks which were looked up, and drop old ones.
+     * This has to be called on the main thread every tick.
+     */
+    public void updateSnapshots() {
+        tick++;
+
+        Set<UUID> online = new HashSet<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.add(player.getUniqueId());
+            playerWorlds.put(player.getUniqueId(), player.getWorld().getUID());
+        }
+        playerWorlds.keySet().retainAll(online);
+
+        Iterator<Map.Entry<UUID, WorldSnapshots>> iterator = worlds.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, WorldSnapshots> entry = iterator.next();
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                iterator.remove();
+                continue;
+            }
+            entry.getValue().update(world, tick);
+        }
+    }
+
+    /**
+     * Take the snapshot of a chunk again on the next tick, because blocks in it changed.
+     * The old snapshot is used until then.
+     *
+     * @param world  The world of the chunk
+     * @param chunkX Chunk X
+     * @param chunkZ Chunk Z
+     */
+    public void invalidate(World world, int chunkX, int chunkZ) {
+        WorldSnapshots snapshots = worlds.get(world.getUID());
+        if (snapshots != null) {
+            snapshots.refresh(chunkX, chunkZ);
+        }
+    }
+
+    private static long toKey(int chunkX, int chunkZ) {
+        return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+    }
+
+    private static int toIndex(int x, int y, int z) {
+        return y << 8 | (x & 0xF) << 4 | (z & 0xF);
+    }
+
+    private static class WorldSnapshots {
+        private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+        private final Set<Long> requested = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+        private Snapshot get(int chunkX, int chunkZ) {
+            Long key = toKey(chunkX, chunkZ);
+            Snapshot snapshot = snapshots.get(key);
+            if (snapshot == null) {
+                requested.add(key);
             }
+            return snapshot;
+        }
+
+        private void refresh(int chunkX, int chunkZ) {
+            Long key = toKey(chunkX, chunkZ);
+            if (snapshots.containsKey(key)) {
+                requested.add(key);
+            }
+        }
+
+        private void update(World world, int tick) {
+            Iterator<Snapshot> iterator = snapshots.values().iterator();
+            while (iterator.hasNext()) {
+                if (tick - iterator.next().tick > MAX_SNAPSHOT_AGE) {
+                    iterator.remove();
+                }
+            }
+
+            int taken = 0;
+            for (Long key : requested) {
+                if (taken == MAX_SNAPSHOTS_PER_TICK) break;
+                if (snapshots.size() >= MAX_SNAPSHOTS_PER_WORLD && !snapshots.containsKey(key)) continue;
+                int chunkX = (int) (key >> 32);
+                int chunkZ = key.intValue();
+                if (!world.isChunkLoaded(chunkX, chunkZ)) continue;
+
+                snapshots.put(key, new Snapshot(world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false), tick));
+                taken++;
+            }
+            // Chunks which didn't fit are requested again if they are still used
+            requested.clear();
         }
-        return 0;
     }
 
-    public Chunk getChunk(World world, int x, int z) {
-        if (lastChunk != null && lastChunk.getX() == x && lastChunk.getZ() == z) {
-            return lastChunk;
+    private static class Snapshot {
+        private final ChunkSnapshot snapshot;
+        private final int tick;
+        // 1.13 block states changed by the server after the snapshot was taken
+        private final Map<Integer, Integer> changes = new ConcurrentHashMap<>();
+
+        private Snapshot(ChunkSnapshot snapshot, int tick) {
+            this.snapshot = snapshot;
+            this.tick = tick;
+        }
+
+        private int getWorldBlockData(int x, int y, int z) {
+            if (y < 0 || y > 255) return 0;
+            return snapshot.getBlockTypeId(x & 0xF, y, z & 0xF) << 4 | snapshot.getBlockData(x & 0xF, y, z & 0xF);
+        }
+
+        private int getBlockData(int x, int y, int z) {
+            Integer changed = changes.get(toIndex(x, y, z));
+            if (changed != null) return changed;
+            return MappingData.blockMappings.getNewBlock(getWorldBlockData(x, y, z));
         }
-        return lastChunk = world.getChunkAt(x, z);
     }
 }
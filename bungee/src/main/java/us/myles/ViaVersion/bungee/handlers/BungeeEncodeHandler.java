@@ -46,26 +46,40 @@ public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
                 handledCompression = true;
             }
         }
+        if (!needsCompress) {
+            // Own the packet, it may get replaced by the transformed one
+            bytebuf.retain();
+        }
         // Increment sent
         info.incrementSent();
 
         if (info.isActive()) {
-            // Handle ID
-            int id = Type.VAR_INT.read(bytebuf);
-            // Transform
-            ByteBuf oldPacket = bytebuf.copy();
-            bytebuf.clear();
-
+            ProtocolInfo protInfo = info.get(ProtocolInfo.class);
+            ByteBuf newPacket = null;
             try {
-                PacketWrapper wrapper = new PacketWrapper(id, oldPacket, info);
-                ProtocolInfo protInfo = info.get(ProtocolInfo.class);
-                protInfo.getPipeline().transform(Direction.OUTGOING, protInfo.getState(), wrapper);
-                wrapper.writeToBuffer(bytebuf);
+                // Packets of which only the id changes are rewritten in place
+                if (!protInfo.getPipeline().transformPassthrough(Direction.OUTGOING, protInfo.getState(), bytebuf)) {
+                    // Handle ID
+                    int id = Type.VAR_INT_PRIMITIVE.readPrimitive(bytebuf);
+                    // Transform
+                    newPacket = ctx.alloc().buffer();
+                    PacketWrapper wrapper = PacketWrapper.obtain(id, bytebuf, info);
+                    try {
+                        protInfo.getPipeline().transform(Direction.OUTGOING, protInfo.getState(), wrapper);
+                        wrapper.writeToBuffer(newPacket);
+                    } finally {
+                        wrapper.release();
+                    }
+
+                    bytebuf.release();
+                    bytebuf = newPacket;
+                }
             } catch (Throwable e) {
-                bytebuf.clear();
+                bytebuf.release();
+                if (newPacket != null) {
+                    newPacket.release();
+                }
                 throw e;
-            } finally {
-                oldPacket.release();
             }
         }
 
@@ -73,10 +87,8 @@ public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
             ByteBuf old = bytebuf;
             bytebuf = BungeePipelineUtil.compress(ctx, bytebuf);
             old.release();
-            out.add(bytebuf);
-        } else {
-            out.add(bytebuf.retain());
         }
+        out.add(bytebuf);
     }
 
     @Override
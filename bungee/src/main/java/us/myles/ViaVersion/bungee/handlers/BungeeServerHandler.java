@@ -109,11 +109,14 @@ public class BungeeServerHandler implements Listener {
         } catch (Exception ex) {
             return; // Ignored
         }
-        for (StoredObject storedObject : userConnection.getStoredObjects().values()) {
-            if (storedObject instanceof ExternalJoinGameListener) {
-                ((ExternalJoinGameListener) storedObject).onExternalJoinGame(playerId);
+        // Entity trackers are only accessed from the event loop of the connection
+        userConnection.getChannel().eventLoop().execute(() -> {
+            for (StoredObject storedObject : userConnection.getStoredObjects().values()) {
+                if (storedObject instanceof ExternalJoinGameListener) {
+                    ((ExternalJoinGameListener) storedObject).onExternalJoinGame(playerId);
+                }
             }
-        }
+        });
     }
 
 
@@ -160,19 +163,14 @@ public class BungeeServerHandler implements Listener {
                     List<Pair<Integer, Protocol>> protocols = ProtocolRegistry.getProtocolPath(info.getProtocolVersion(), protocolId);
                     ProtocolPipeline pipeline = user.get(ProtocolInfo.class).getPipeline();
                     user.clearStoredObjects();
-                    pipeline.cleanPipes();
                     if (protocols == null) {
                         // TODO Check Bungee Supported Protocols? *shrugs*
                         protocolId = info.getProtocolVersion();
-                    } else {
-                        for (Pair<Integer, Protocol> prot : protocols) {
-                            pipeline.add(prot.getValue());
-                        }
                     }
 
                     info.setServerProtocolVersion(protocolId);
-                    // Add version-specific base Protocol
-                    pipeline.add(ProtocolRegistry.getBaseProtocol(protocolId));
+                    // Use the shared pipes, including the version-specific base Protocol
+                    pipeline.setProtocols(info.getProtocolVersion(), protocolId);
 
                     // Workaround 1.13 server change
                     Object relayMessages = getRelayMessages.invoke(e.getPlayer().getPendingConnection());
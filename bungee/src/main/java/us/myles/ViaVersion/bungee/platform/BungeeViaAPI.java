@@ -11,6 +11,7 @@ import us.myles.ViaVersion.api.boss.BossBar;
 import us.myles.ViaVersion.api.boss.BossColor;
 import us.myles.ViaVersion.api.boss.BossStyle;
 import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.protocol.PacketStats;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
 import us.myles.ViaVersion.bungee.service.ProtocolDetectorService;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
@@ -78,6 +79,11 @@ public class BungeeViaAPI implements ViaAPI<ProxiedPlayer> {
         return outputSet;
     }
 
+    @Override
+    public PacketStats getPacketStats() {
+        return Via.getManager().getPacketStats();
+    }
+
     public Map<UUID, UserConnection> getPortedPlayers() {
         return Via.getManager().getPortedPlayers();
     }
@@ -8,6 +8,7 @@ import us.myles.ViaVersion.api.platform.ViaInjector;
 import us.myles.ViaVersion.api.platform.ViaPlatform;
 import us.myles.ViaVersion.api.platform.ViaPlatformLoader;
 import us.myles.ViaVersion.api.platform.providers.ViaProviders;
+import us.myles.ViaVersion.api.protocol.PacketStats;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
 import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.commands.ViaCommandHandler;
@@ -23,6 +24,7 @@ public class ViaManager {
     private final Map<UUID, UserConnection> portedPlayers = new ConcurrentHashMap<>();
     private ViaPlatform platform;
     private ViaProviders providers = new ViaProviders();
+    private final PacketStats packetStats = new PacketStats();
     @Setter
     private boolean debug = false;
     // Internals
@@ -43,6 +45,7 @@ public class ViaManager {
             // Reload?
             platform.onReload();
         }
+        packetStats.setEnabled(platform.getConf().isPacketStats());
         // Check for updates
         if (platform.getConf().isCheckForUpdates())
             UpdateUtil.sendUpdateMessage();
@@ -0,0 +1,282 @@
+package us.myles.ViaVersion.api;
+
+import us.myles.ViaVersion.api.type.Type;
+
+import java.util.Arrays;
+
+/**
+ * Growable store of typed packet values used by {@link PacketWrapper}.
+ * <p>
+ * Values are kept in parallel slot arrays, primitive types (VarInt, int, float, double and boolean)
+ * are stored unboxed and every distinct type keeps the positions of its slots,
+ * so that lookups by (type, index) don't have to scan the whole packet.
+ * The store also acts as a reader through its cursor, which allows handing it to the next protocol without copying.
+ */
+class PacketValues {
+    static final byte OBJECT = 0;
+    static final byte VAR_INT = 1;
+    static final byte INT = 2;
+    static final byte FLOAT = 3;
+    static final byte DOUBLE = 4;
+    static final byte BOOLEAN = 5;
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int[] EMPTY_POSITIONS = new int[0];
+
+    private Type[] types = new Type[DEFAULT_CAPACITY];
+    private Object[] objects = new Object[DEFAULT_CAPACITY];
+    private long[] primitives = new long[DEFAULT_CAPACITY];
+    private byte[] kinds = new byte[DEFAULT_CAPACITY];
+    private int size;
+    private int cursor;
+
+    // Per type index (distinct types of a packet are few, so a small linear table is enough)
+    private Type[] indexTypes = new Type[4];
+    private int[][] indexPositions = new int[4][];
+    private int[] indexCounts = new int[4];
+    private int distinctTypes;
+
+    /**
+     * Get the slot kind used to store values of a type
+     *
+     * @param type The type
+     * @return The kind, {@link #OBJECT} if the type isn't stored unboxed
+     */
+    static byte kindOf(Type type) {
+        if (type == Type.VAR_INT) return VAR_INT;
+        if (type == Type.INT) return INT;
+        if (type == Type.FLOAT) return FLOAT;
+        if (type == Type.DOUBLE) return DOUBLE;
+        if (type == Type.BOOLEAN) return BOOLEAN;
+        return OBJECT;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the amount of slots which haven't been read through the cursor.
+     *
+     * @return The amount of unread values
+     */
+    public int remaining() {
+        return size - cursor;
+    }
+
+    public boolean hasRemaining() {
+        return cursor < size;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    public Type getType(int slot) {
+        return types[slot];
+    }
+
+    public byte getKind(int slot) {
+        return kinds[slot];
+    }
+
+    public long getPrimitive(int slot) {
+        return primitives[slot];
+    }
+
+    /**
+     * Get the value of a slot, boxing it if it is stored as a primitive.
+     *
+     * @param slot The slot
+     * @return The value
+     */
+    public Object getValue(int slot) {
+        switch (kinds[slot]) {
+            case VAR_INT:
+            case INT:
+                return (int) primitives[slot];
+            case FLOAT:
+                return Float.intBitsToFloat((int) primitives[slot]);
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[slot]);
+            case BOOLEAN:
+                return primitives[slot] != 0;
+            default:
+                return objects[slot];
+        }
+    }
+
+    /**
+     * Append a value, the value must already be converted to the output class of the type.
+     *
+     * @param type  The type of the value
+     * @param value The value
+     */
+    public void add(Type type, Object value) {
+        int slot = reserve(type);
+        setValue(slot, value);
+    }
+
+    /**
+     * Copy a slot of another store to the end of this store.
+     *
+     * @param other The store to copy from
+     * @param slot  The slot in the other store
+     */
+    public void add(PacketValues other, int slot) {
+        int newSlot = reserve(other.types[slot]);
+        kinds[newSlot] = other.kinds[slot];
+        objects[newSlot] = other.objects[slot];
+        primitives[newSlot] = other.primitives[slot];
+    }
+
+    /**
+     * Replace the value of a slot.
+     * If the value doesn't match the primitive kind of the slot it is kept as an object.
+     *
+     * @param slot  The slot
+     * @param value The new value
+     */
+    public void setValue(int slot, Object value) {
+        byte kind = kindOf(types[slot]);
+        switch (kind) {
+            case VAR_INT:
+            case INT:
+                if (value instanceof Integer) {
+                    primitives[slot] = (Integer) value;
+                    break;
+                }
+                kind = OBJECT;
+                break;
+            case FLOAT:
+                if (value instanceof Float) {
+                    primitives[slot] = Float.floatToRawIntBits((Float) value);
+                    break;
+                }
+                kind = OBJECT;
+                break;
+            case DOUBLE:
+                if (value instanceof Double) {
+                    primitives[slot] = Double.doubleToRawLongBits((Double) value);
+                    break;
+                }
+                kind = OBJECT;
+                break;
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    primitives[slot] = (Boolean) value ? 1 : 0;
+                    break;
+                }
+                kind = OBJECT;
+                break;
+        }
+        kinds[slot] = kind;
+        objects[slot] = kind == OBJECT ? value : null;
+    }
+
+    /**
+     * Find the slot of the value at the index relative to its type.
+     *
+     * @param type  The type (compared by reference)
+     * @param index The index relative to the type
+     * @return The slot or -1 if there is none
+     */
+    public int find(Type type, int index) {
+        for (int i = 0; i < distinctTypes; i++) {
+            if (indexTypes[i] == type) {
+                return index >= 0 && index < indexCounts[i] ? indexPositions[i][index] : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read the next value using the cursor.
+     *
+     * @return The slot of the value, -1 if there are no unread values
+     */
+    public int next() {
+        return cursor < size ? cursor++ : -1;
+    }
+
+    /**
+     * Move all unread values of another store to the end of this store.
+     *
+     * @param other The store to drain
+     */
+    public void drain(PacketValues other) {
+        for (int i = other.cursor; i < other.size; i++) {
+            add(other, i);
+        }
+        other.clear();
+    }
+
+    /**
+     * Clear the store, the allocated arrays are kept for reuse.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(types, 0, size, null);
+        for (int i = 0; i < distinctTypes; i++) {
+            indexTypes[i] = null;
+            indexCounts[i] = 0;
+        }
+        distinctTypes = 0;
+        size = 0;
+        cursor = 0;
+    }
+
+    private int reserve(Type type) {
+        if (size == types.length) {
+            int capacity = size << 1;
+            types = Arrays.copyOf(types, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+        }
+        int slot = size++;
+        types[slot] = type;
+        index(type, slot);
+        return slot;
+    }
+
+    private void index(Type type, int slot) {
+        int entry = -1;
+        for (int i = 0; i < distinctTypes; i++) {
+            if (indexTypes[i] == type) {
+                entry = i;
+                break;
+            }
+        }
+        if (entry == -1) {
+            if (distinctTypes == indexTypes.length) {
+                int capacity = distinctTypes << 1;
+                indexTypes = Arrays.copyOf(indexTypes, capacity);
+                indexPositions = Arrays.copyOf(indexPositions, capacity);
+                indexCounts = Arrays.copyOf(indexCounts, capacity);
+            }
+            entry = distinctTypes++;
+            indexTypes[entry] = type;
+            if (indexPositions[entry] == null) {
+                indexPositions[entry] = EMPTY_POSITIONS;
+            }
+        }
+        int[] positions = indexPositions[entry];
+        int count = indexCounts[entry];
+        if (count == positions.length) {
+            positions = indexPositions[entry] = Arrays.copyOf(positions, Math.max(4, count << 1));
+        }
+        positions[count] = slot;
+        indexCounts[entry] = count + 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = cursor; i < size; i++) {
+            if (i != cursor) builder.append(", ");
+            builder.append("Pair{").append(types[i]).append(", ").append(getValue(i)).append('}');
+        }
+        return builder.append(']').toString();
+    }
+}
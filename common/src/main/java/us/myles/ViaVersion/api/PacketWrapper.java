@@ -6,6 +6,7 @@ import io.netty.channel.ChannelFuture;
 import lombok.Getter;
 import lombok.Setter;
 import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.protocol.PacketStats;
 import us.myles.ViaVersion.api.protocol.Protocol;
 import us.myles.ViaVersion.api.remapper.ValueCreator;
 import us.myles.ViaVersion.api.type.Type;
@@ -23,14 +24,17 @@ import java.util.*;
 public class PacketWrapper {
     public static final int PASSTHROUGH_ID = 1000;
 
-    private final ByteBuf inputBuffer;
-    private final UserConnection userConnection;
+    private ByteBuf inputBuffer;
+    private UserConnection userConnection;
     private boolean send = true;
     @Setter
     @Getter
     private int id = -1;
-    private final LinkedList<Pair<Type, Object>> readableObjects = new LinkedList<>();
-    private final List<Pair<Type, Object>> packetValues = new ArrayList<>();
+    private PacketValues readableObjects = new PacketValues();
+    private PacketValues packetValues = new PacketValues();
+    private boolean recycled;
+    // Leak reference while the wrapper is obtained from the pool in debug mode
+    private Object leak;
 
     public PacketWrapper(int packetID, ByteBuf inputBuffer, UserConnection userConnection) {
         this.id = packetID;
@@ -38,6 +42,55 @@ public class PacketWrapper {
         this.userConnection = userConnection;
     }
 
+    PacketWrapper() {
+    }
+
+    /**
+     * Get a packet wrapper from the pool of the current thread.
+     * The caller owns the wrapper and has to call {@link #release()} once the packet is written,
+     * it may not be used or kept after that.
+     *
+     * @param packetID       The ID of the packet
+     * @param inputBuffer    The buffer to read from, it stays owned by the caller
+     * @param userConnection The user
+     * @return The packet wrapper
+     */
+    public static PacketWrapper obtain(int packetID, ByteBuf inputBuffer, UserConnection userConnection) {
+        PacketWrapper wrapper = PacketWrapperRecycler.get();
+        wrapper.id = packetID;
+        wrapper.inputBuffer = inputBuffer;
+        wrapper.userConnection = userConnection;
+        return wrapper;
+    }
+
+    /**
+     * Clear the wrapper and return it to the pool of the current thread, see {@link #obtain(int, ByteBuf, UserConnection)}.
+     * The input buffer isn't released.
+     */
+    public void release() {
+        Preconditions.checkState(!recycled, "PacketWrapper was released already");
+        recycled = true;
+        readableObjects.clear();
+        packetValues.clear();
+        inputBuffer = null;
+        userConnection = null;
+        send = true;
+        id = -1;
+        PacketWrapperRecycler.recycle(this);
+    }
+
+    void setRecycled(boolean recycled) {
+        this.recycled = recycled;
+    }
+
+    Object getLeak() {
+        return leak;
+    }
+
+    void setLeak(Object leak) {
+        this.leak = leak;
+    }
+
     /**
      * Get a part from the output
      *
@@ -48,14 +101,9 @@ public class PacketWrapper {
      * @throws Exception If it fails to find it, an exception will be thrown.
      */
     public <T> T get(Type<T> type, int index) throws Exception {
-        int currentIndex = 0;
-        for (Pair<Type, Object> packetValue : packetValues) {
-            if (packetValue.getKey() == type) { // Ref check
-                if (currentIndex == index) {
-                    return (T) packetValue.getValue();
-                }
-                currentIndex++;
-            }
+        int slot = packetValues.find(type, index); // Ref check
+        if (slot != -1) {
+            return (T) packetValues.getValue(slot);
         }
 
         Exception e = new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index);
@@ -70,16 +118,7 @@ public class PacketWrapper {
      * @return True if the type is at the index
      */
     public boolean is(Type type, int index) {
-        int currentIndex = 0;
-        for (Pair<Type, Object> packetValue : packetValues) {
-            if (packetValue.getKey() == type) { // Ref check
-                if (currentIndex == index) {
-                    return true;
-                }
-                currentIndex++;
-            }
-        }
-        return false;
+        return packetValues.find(type, index) != -1; // Ref check
     }
 
     /**
@@ -91,8 +130,8 @@ public class PacketWrapper {
      */
     public boolean isReadable(Type type, int index) {
         int currentIndex = 0;
-        for (Pair<Type, Object> packetValue : readableObjects) {
-            if (packetValue.getKey().getBaseClass() == type.getBaseClass()) { // Ref check
+        for (int i = readableObjects.getCursor(); i < readableObjects.size(); i++) {
+            if (readableObjects.getType(i).getBaseClass() == type.getBaseClass()) { // Ref check
                 if (currentIndex == index) {
                     return true;
                 }
@@ -113,15 +152,10 @@ public class PacketWrapper {
      * @throws Exception If it fails to set it, an exception will be thrown.
      */
     public <T> void set(Type<T> type, int index, T value) throws Exception {
-        int currentIndex = 0;
-        for (Pair<Type, Object> packetValue : packetValues) {
-            if (packetValue.getKey() == type) { // Ref check
-                if (currentIndex == index) {
-                    packetValue.setValue(value);
-                    return;
-                }
-                currentIndex++;
-            }
+        int slot = packetValues.find(type, index); // Ref check
+        if (slot != -1) {
+            packetValues.setValue(slot, value);
+            return;
         }
         Exception e = new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index);
         throw new InformativeException(e).set("Type", type.getTypeName()).set("Index", index).set("Packet ID", getId());
@@ -137,7 +171,7 @@ public class PacketWrapper {
      */
     public <T> T read(Type<T> type) throws Exception {
         if (type == Type.NOTHING) return null;
-        if (readableObjects.isEmpty()) {
+        if (!readableObjects.hasRemaining()) {
             Preconditions.checkNotNull(inputBuffer, "This packet does not have an input buffer.");
             // We could in the future log input read values, but honestly for things like bulk maps, mem waste D:
             try {
@@ -146,15 +180,15 @@ public class PacketWrapper {
                 throw new InformativeException(e).set("Type", type.getTypeName()).set("Packet ID", getId()).set("Data", packetValues);
             }
         } else {
-            Pair<Type, Object> read = readableObjects.poll();
-            Type rtype = read.getKey();
+            int read = readableObjects.next();
+            Type rtype = readableObjects.getType(read);
             if (rtype.equals(type) || (type.getBaseClass().equals(rtype.getBaseClass()) && type.getOutputClass().equals(rtype.getOutputClass()))) {
-                return (T) read.getValue();
+                return (T) readableObjects.getValue(read);
             } else {
                 if (rtype == Type.NOTHING) {
                     return read(type); // retry
                 } else {
-                    Exception e = new IOException("Unable to read type " + type.getTypeName() + ", found " + read.getKey().getTypeName());
+                    Exception e = new IOException("Unable to read type " + type.getTypeName() + ", found " + rtype.getTypeName());
                     throw new InformativeException(e).set("Type", type.getTypeName()).set("Packet ID", getId()).set("Data", packetValues);
                 }
             }
@@ -179,7 +213,7 @@ public class PacketWrapper {
                 }
             }
         }
-        packetValues.add(new Pair<Type, Object>(type, value));
+        packetValues.add(type, value);
     }
 
     /**
@@ -196,6 +230,24 @@ public class PacketWrapper {
         return value;
     }
 
+    /**
+     * Check if passing through the next values with the given types would leave them unchanged,
+     * in which case they can stay in the input and be written as they are.
+     * This is false if a readable value was written by a previous protocol with another type.
+     *
+     * @param types The types which would be passed through
+     * @return True if the values don't need to be passed through
+     */
+    public boolean isUnchangedPassthrough(Type[] types) {
+        int readable = Math.min(types.length, readableObjects.remaining());
+        for (int i = 0; i < readable; i++) {
+            if (readableObjects.getType(readableObjects.getCursor() + i) != types[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Take all the inputs and write them to the output.
      *
@@ -203,8 +255,7 @@ public class PacketWrapper {
      */
     public void passthroughAll() throws Exception {
         // Copy previous objects
-        packetValues.addAll(readableObjects);
-        readableObjects.clear();
+        packetValues.drain(readableObjects);
         // If the buffer has readable bytes, copy them.
         if (inputBuffer.readableBytes() > 0) {
             passthrough(Type.REMAINING_BYTES);
@@ -219,32 +270,48 @@ public class PacketWrapper {
      */
     public void writeToBuffer(ByteBuf buffer) throws Exception {
         if (id != -1) {
-            Type.VAR_INT.write(buffer, id);
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, id);
         }
-        if (readableObjects.size() > 0) {
-            packetValues.addAll(readableObjects);
-            readableObjects.clear();
+        if (readableObjects.hasRemaining()) {
+            packetValues.drain(readableObjects);
         }
 
-        int index = 0;
-        for (Pair<Type, Object> packetValue : packetValues) {
+        for (int index = 0; index < packetValues.size(); index++) {
+            Type type = packetValues.getType(index);
             try {
-                Object value = packetValue.getValue();
-                if (value != null) {
-                    if (!packetValue.getKey().getOutputClass().isAssignableFrom(value.getClass())) {
-                        // attempt conversion
-                        if (packetValue.getKey() instanceof TypeConverter) {
-                            value = ((TypeConverter) packetValue.getKey()).from(value);
-                        } else {
-                            Via.getPlatform().getLogger().warning("Possible type mismatch: " + value.getClass().getName() + " -> " + packetValue.getKey().getOutputClass());
+                switch (packetValues.getKind(index)) {
+                    case PacketValues.VAR_INT:
+                        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, (int) packetValues.getPrimitive(index));
+                        break;
+                    case PacketValues.INT:
+                        buffer.writeInt((int) packetValues.getPrimitive(index));
+                        break;
+                    case PacketValues.FLOAT:
+                        buffer.writeFloat(Float.intBitsToFloat((int) packetValues.getPrimitive(index)));
+                        break;
+                    case PacketValues.DOUBLE:
+                        buffer.writeDouble(Double.longBitsToDouble(packetValues.getPrimitive(index)));
+                        break;
+                    case PacketValues.BOOLEAN:
+                        buffer.writeBoolean(packetValues.getPrimitive(index) != 0);
+                        break;
+                    default:
+                        Object value = packetValues.getValue(index);
+                        if (value != null) {
+                            if (!type.getOutputClass().isAssignableFrom(value.getClass())) {
+                                // attempt conversion
+                                if (type instanceof TypeConverter) {
+                                    value = ((TypeConverter) type).from(value);
+                                } else {
+                                    Via.getPlatform().getLogger().warning("Possible type mismatch: " + value.getClass().getName() + " -> " + type.getOutputClass());
+                                }
+                            }
                         }
-                    }
+                        type.write(buffer, value);
                 }
-                packetValue.getKey().write(buffer, value);
             } catch (Exception e) {
-                throw new InformativeException(e).set("Index", index).set("Type", packetValue.getKey().getTypeName()).set("Packet ID", getId()).set("Data", packetValues);
+                throw new InformativeException(e).set("Index", index).set("Type", type.getTypeName()).set("Packet ID", getId()).set("Data", packetValues);
             }
-            index++;
         }
         writeRemaining(buffer);
     }
@@ -317,12 +384,8 @@ public class PacketWrapper {
      * @throws Exception if it fails to write
      */
     private ByteBuf constructPacket(Class<? extends Protocol> packetProtocol, boolean skipCurrentPipeline, Direction direction) throws Exception {
-        // Apply current pipeline
-        List<Protocol> protocols = new ArrayList<>(user().get(ProtocolInfo.class).getPipeline().pipes());
-        if (direction == Direction.OUTGOING) {
-            // Other way if outgoing
-            Collections.reverse(protocols);
-        }
+        // Apply current pipeline (Other way if outgoing)
+        List<Protocol> protocols = user().get(ProtocolInfo.class).getPipeline().getCompiledPipeline().getProtocols(direction);
         int index = -1;
         for (int i = 0; i < protocols.size(); i++) {
             if (protocols.get(i).getClass().equals(packetProtocol)) {
@@ -427,8 +490,17 @@ public class PacketWrapper {
      * @throws Exception If it fails to transform a packet, exception will be thrown
      */
     public PacketWrapper apply(Direction direction, State state, int index, List<Protocol> pipeline) throws Exception {
+        PacketStats stats = Via.getManager().getPacketStats();
+        int bytes = getReadableBytes();
         for (int i = index; i < pipeline.size(); i++) { // Copy to prevent from removal.
-            pipeline.get(i).transform(direction, state, this);
+            Protocol protocol = pipeline.get(i);
+            int packetId = getId();
+            long start = stats.start();
+            try {
+                protocol.transform(direction, state, this);
+            } finally {
+                stats.record(protocol, direction, state, packetId, bytes, start);
+            }
             // Reset the reader for the packetWrapper (So it can be recycled across packets)
             resetReader();
         }
@@ -436,6 +508,15 @@ public class PacketWrapper {
         return this;
     }
 
+    /**
+     * Get the amount of bytes which haven't been read from the input
+     *
+     * @return The readable bytes, 0 if there is no input buffer
+     */
+    public int getReadableBytes() {
+        return inputBuffer == null ? 0 : inputBuffer.readableBytes();
+    }
+
     /**
      * Cancel this packet from sending
      */
@@ -466,11 +547,15 @@ public class PacketWrapper {
      */
     public void resetReader() {
         // Move readable objects are packet values
-        this.packetValues.addAll(readableObjects);
-        this.readableObjects.clear();
-        // Move all packet values to the readable for next packet.
-        this.readableObjects.addAll(packetValues);
-        this.packetValues.clear();
+        if (readableObjects.hasRemaining()) {
+            this.packetValues.drain(readableObjects);
+        } else {
+            this.readableObjects.clear();
+        }
+        // Swap the stores, the packet values become the readable for next packet.
+        PacketValues values = this.packetValues;
+        this.packetValues = this.readableObjects;
+        this.readableObjects = values;
     }
 
     /**
@@ -0,0 +1,96 @@
+package us.myles.ViaVersion.api;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Thread local pool of {@link PacketWrapper}s, similar to Netty's Recycler.
+ * <p>
+ * Every event loop keeps its own small stack of wrappers, so getting and recycling them doesn't need any locking.
+ * A wrapper released on another thread goes to the pool of that thread.
+ * In debug mode wrappers which are garbage collected without being released are reported together with where they were obtained.
+ */
+class PacketWrapperRecycler {
+    // Packets are handled one at a time per event loop, a few more are needed for packets created while transforming
+    private static final int MAX_POOLED = 8;
+    private static final ThreadLocal<Deque<PacketWrapper>> POOL = new ThreadLocal<Deque<PacketWrapper>>() {
+        @Override
+        protected Deque<PacketWrapper> initialValue() {
+            return new ArrayDeque<>(MAX_POOLED);
+        }
+    };
+    private static final ReferenceQueue<PacketWrapper> LEAKS = new ReferenceQueue<>();
+    // Keeps the leak references reachable until the wrapper is released
+    private static final Set<LeakReference> TRACKED = Collections.newSetFromMap(new ConcurrentHashMap<LeakReference, Boolean>());
+
+    /**
+     * Get a wrapper from the pool of the current thread
+     *
+     * @return A cleared wrapper
+     */
+    public static PacketWrapper get() {
+        PacketWrapper wrapper = POOL.get().poll();
+        if (wrapper == null) {
+            wrapper = new PacketWrapper();
+        }
+        wrapper.setRecycled(false);
+
+        if (isLeakDetection()) {
+            reportLeaks();
+            LeakReference leak = new LeakReference(wrapper);
+            TRACKED.add(leak);
+            wrapper.setLeak(leak);
+        }
+        return wrapper;
+    }
+
+    /**
+     * Return a cleared wrapper to the pool of the current thread
+     *
+     * @param wrapper The wrapper
+     */
+    public static void recycle(PacketWrapper wrapper) {
+        Object leak = wrapper.getLeak();
+        if (leak != null) {
+            TRACKED.remove(leak);
+            ((LeakReference) leak).clear();
+            wrapper.setLeak(null);
+        }
+
+        Deque<PacketWrapper> pool = POOL.get();
+        if (pool.size() < MAX_POOLED) {
+            pool.push(wrapper);
+        }
+    }
+
+    private static boolean isLeakDetection() {
+        return Via.getManager() != null && Via.getManager().isDebug();
+    }
+
+    private static void reportLeaks() {
+        LeakReference leak;
+        while ((leak = (LeakReference) LEAKS.poll()) != null) {
+            if (TRACKED.remove(leak)) {
+                Via.getPlatform().getLogger().log(Level.WARNING, "PacketWrapper was garbage collected without being released, it was obtained at:", leak.getCreated());
+            }
+        }
+    }
+
+    private static class LeakReference extends PhantomReference<PacketWrapper> {
+        private final Throwable created = new Throwable("PacketWrapper obtained");
+
+        LeakReference(PacketWrapper wrapper) {
+            super(wrapper, LEAKS);
+        }
+
+        Throwable getCreated() {
+            return created;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import io.netty.buffer.ByteBuf;
 import us.myles.ViaVersion.api.boss.BossBar;
 import us.myles.ViaVersion.api.boss.BossColor;
 import us.myles.ViaVersion.api.boss.BossStyle;
+import us.myles.ViaVersion.api.protocol.PacketStats;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
 
 import java.util.SortedSet;
@@ -96,4 +97,11 @@ public interface ViaAPI<T> {
      * @see ProtocolRegistry#getSupportedVersions() for full list.
      */
     SortedSet<Integer> getSupportedVersions();
+
+    /**
+     * Get the packet statistics, these are only recorded if packet-stats is enabled in the config
+     *
+     * @return PacketStats instance
+     */
+    PacketStats getPacketStats();
 }
@@ -367,4 +367,25 @@ public interface ViaVersionConfig {
      * @return True if enabled
      */
     boolean is1_15InstantRespawn();
+
+    /**
+     * Record packet counts and transform times per protocol and packet, see /viaversion stats
+     *
+     * @return True if enabled
+     */
+    boolean isPacketStats();
+
+    /**
+     * Get the size of the cache of translated chunks shared between players
+     *
+     * @return The size in megabytes, 0 if disabled
+     */
+    int getTranslatedChunkCacheSize();
+
+    /**
+     * Get the amount of threads used to translate the sections of chunks in parallel
+     *
+     * @return The amount of threads, 0 if disabled
+     */
+    int getChunkTranslationThreads();
 }
@@ -215,7 +215,7 @@ public class UserConnection {
         final ByteBuf buf = packet.alloc().buffer();
         try {
             try {
-                Type.VAR_INT.write(buf, PacketWrapper.PASSTHROUGH_ID);
+                Type.VAR_INT_PRIMITIVE.writePrimitive(buf, PacketWrapper.PASSTHROUGH_ID);
             } catch (Exception e) {
                 // Should not happen
                 Via.getPlatform().getLogger().warning("Type.VAR_INT.write thrown an exception: " + e);
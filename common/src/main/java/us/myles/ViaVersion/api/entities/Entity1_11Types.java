@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import us.myles.ViaVersion.api.Via;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -144,6 +145,8 @@ public class Entity1_11Types {
         LIAMA_SPIT(-1, ENTITY);
 
         private static final Map<Integer, EntityType> TYPES = new HashMap<>();
+        // The type itself and all its parents by ordinal, for every type
+        private static final BitSet[] ANCESTORS = new BitSet[values().length];
 
         private final int id;
         private final EntityType parent;
@@ -156,6 +159,12 @@ public class Entity1_11Types {
         static {
             for (EntityType type : EntityType.values()) {
                 TYPES.put(type.id, type);
+
+                BitSet ancestors = new BitSet();
+                for (EntityType parent = type; parent != null; parent = parent.getParent()) {
+                    ancestors.set(parent.ordinal());
+                }
+                ANCESTORS[type.ordinal()] = ancestors;
             }
         }
 
@@ -177,16 +186,7 @@ public class Entity1_11Types {
         }
 
         public boolean isOrHasParent(EntityType type) {
-            EntityType parent = this;
-
-            do {
-                if (parent.equals(type))
-                    return true;
-
-                parent = parent.getParent();
-            } while (parent != null);
-
-            return false;
+            return type != null && ANCESTORS[ordinal()].get(type.ordinal());
         }
     }
 
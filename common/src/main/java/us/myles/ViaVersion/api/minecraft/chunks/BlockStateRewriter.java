@@ -0,0 +1,12 @@
+package us.myles.ViaVersion.api.minecraft.chunks;
+
+public interface BlockStateRewriter {
+
+    /**
+     * Get the block state id of the next version
+     *
+     * @param blockStateId The old block state id
+     * @return The new block state id
+     */
+    int getNewBlockStateId(int blockStateId);
+}
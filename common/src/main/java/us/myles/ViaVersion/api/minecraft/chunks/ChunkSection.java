@@ -3,11 +3,9 @@ package us.myles.ViaVersion.api.minecraft.chunks;
 import io.netty.buffer.ByteBuf;
 import lombok.Getter;
 import lombok.Setter;
+import us.myles.ViaVersion.util.IntIntMap;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
 public class ChunkSection {
     /**
@@ -18,9 +16,14 @@ public class ChunkSection {
      * Length of the sky and block light nibble arrays.
      */
     public static final int LIGHT_LENGTH = 16 * 16 * 16 / 2; // size * size * size / 2 (nibble bit count)
-    private List<Integer> palette = new ArrayList<>();
-    private Map<Integer, Integer> inversePalette = new HashMap<>();
-    private final int[] blocks;
+    // Palettes up to this size are indexed with a byte per block
+    private static final int MAX_BYTE_PALETTE = 256;
+    private int[] palette = new int[16];
+    private int paletteSize;
+    private final IntIntMap inversePalette = new IntIntMap(16, -1);
+    // Palette index of every block, only one of these is used
+    private byte[] byteBlocks;
+    private short[] shortBlocks;
     private NibbleArray blockLight;
     private NibbleArray skyLight;
     @Getter
@@ -28,7 +31,7 @@ public class ChunkSection {
     private int nonAirBlocksCount;
 
     public ChunkSection() {
-        this.blocks = new int[SIZE];
+        this.byteBlocks = new byte[SIZE];
         this.blockLight = new NibbleArray(SIZE);
         addPaletteEntry(0);
     }
@@ -60,13 +63,11 @@ public class ChunkSection {
     }
 
     public int getFlatBlock(int x, int y, int z) {
-        int index = blocks[index(x, y, z)];
-        return palette.get(index);
+        return palette[getPaletteIndex(index(x, y, z))];
     }
 
     public int getFlatBlock(int idx) {
-        int index = blocks[idx];
-        return palette.get(index);
+        return palette[getPaletteIndex(idx)];
     }
 
     public void setBlock(int idx, int type, int data) {
@@ -74,31 +75,39 @@ public class ChunkSection {
     }
 
     public void setPaletteIndex(int idx, int index) {
-        blocks[idx] = index;
+        if (byteBlocks != null) {
+            if (index < MAX_BYTE_PALETTE) {
+                byteBlocks[idx] = (byte) index;
+                return;
+            }
+            expandBlocks();
+        }
+        shortBlocks[idx] = (short) index;
     }
 
     public int getPaletteIndex(int idx) {
-        return blocks[idx];
+        return byteBlocks != null ? byteBlocks[idx] & 0xFF : shortBlocks[idx] & 0xFFFF;
     }
 
     public int getPaletteSize() {
-        return palette.size();
+        return paletteSize;
     }
 
     public int getPaletteEntry(int index) {
-        if (index < 0 || index >= palette.size()) throw new IndexOutOfBoundsException();
-        return palette.get(index);
+        if (index < 0 || index >= paletteSize) throw new IndexOutOfBoundsException();
+        return palette[index];
     }
 
     public void setPaletteEntry(int index, int id) {
-        if (index < 0 || index >= palette.size()) throw new IndexOutOfBoundsException();
-        int oldId = palette.set(index, id);
+        if (index < 0 || index >= paletteSize) throw new IndexOutOfBoundsException();
+        int oldId = palette[index];
         if (oldId == id) return;
+        palette[index] = id;
         inversePalette.put(id, index);
         if (inversePalette.get(oldId) == index) {
             inversePalette.remove(oldId);
-            for (int i = 0; i < palette.size(); i++) {
-                if (palette.get(i) == oldId) {
+            for (int i = 0; i < paletteSize; i++) {
+                if (palette[i] == oldId) {
                     inversePalette.put(oldId, i);
                     break;
                 }
@@ -107,21 +116,27 @@ public class ChunkSection {
     }
 
     public void replacePaletteEntry(int oldId, int newId) {
-        Integer index = inversePalette.remove(oldId);
-        if (index == null) return;
+        int index = inversePalette.remove(oldId);
+        if (index == -1) return;
         inversePalette.put(newId, index);
-        for (int i = 0; i < palette.size(); i++) {
-            if (palette.get(i) == oldId) palette.set(i, newId);
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == oldId) palette[i] = newId;
         }
     }
 
     public void addPaletteEntry(int id) {
-        inversePalette.put(id, palette.size());
-        palette.add(id);
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, paletteSize * 2);
+        }
+        if (paletteSize == MAX_BYTE_PALETTE && byteBlocks != null) {
+            expandBlocks();
+        }
+        inversePalette.put(id, paletteSize);
+        palette[paletteSize++] = id;
     }
 
     public void clearPalette() {
-        palette.clear();
+        paletteSize = 0;
         inversePalette.clear();
     }
 
@@ -133,14 +148,21 @@ public class ChunkSection {
      * @param id  The raw or flat id of the block
      */
     public void setFlatBlock(int idx, int id) {
-        Integer index = inversePalette.get(id);
-        if (index == null) {
-            index = palette.size();
-            palette.add(id);
-            inversePalette.put(id, index);
+        int index = inversePalette.get(id);
+        if (index == -1) {
+            index = paletteSize;
+            addPaletteEntry(id);
         }
 
-        blocks[idx] = index;
+        setPaletteIndex(idx, index);
+    }
+
+    private void expandBlocks() {
+        shortBlocks = new short[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            shortBlocks[i] = (short) (byteBlocks[i] & 0xFF);
+        }
+        byteBlocks = null;
     }
 
     /**
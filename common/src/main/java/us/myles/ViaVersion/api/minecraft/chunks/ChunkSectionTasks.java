@@ -0,0 +1,130 @@
+package us.myles.ViaVersion.api.minecraft.chunks;
+
+import us.myles.ViaVersion.api.Via;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs work on the sections of a chunk, in parallel on a shared pool if chunk-translation-threads is set.
+ * <p>
+ * The calling thread waits until all sections are done, so packets stay in order.
+ * Tasks may only touch their own section.
+ */
+public class ChunkSectionTasks {
+    // Chunks with fewer sections aren't worth splitting up
+    private static final int MIN_PARALLEL_SECTIONS = 4;
+    private static volatile ForkJoinPool pool;
+    private static volatile boolean loaded;
+
+    public interface Task<T> {
+
+        /**
+         * Do the work for one section
+         *
+         * @param index The index of the section in the chunk
+         * @param value The section or its data, never null
+         * @throws Exception If the work fails
+         */
+        void run(int index, T value) throws Exception;
+    }
+
+    private ChunkSectionTasks() {
+    }
+
+    /**
+     * Check if sections are done in parallel
+     *
+     * @param sections The amount of sections
+     * @return True if there's a pool and enough sections
+     */
+    public static boolean isParallel(int sections) {
+        return sections >= MIN_PARALLEL_SECTIONS && getPool() != null;
+    }
+
+    /**
+     * Run a task for every section which isn't null
+     *
+     * @param values The sections or their data, by section index
+     * @param task   The task
+     * @param <T>    The type of the values
+     * @throws Exception The first exception thrown by a task
+     */
+    public static <T> void run(final T[] values, final Task<T> task) throws Exception {
+        int count = 0;
+        for (T value : values) {
+            if (value != null) count++;
+        }
+
+        if (!isParallel(count)) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    task.run(i, values[i]);
+                }
+            }
+            return;
+        }
+
+        final List<RecursiveAction> actions = new ArrayList<>(count);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) continue;
+            final int index = i;
+            actions.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    try {
+                        task.run(index, values[index]);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new SectionTaskException(e);
+                    }
+                }
+            });
+        }
+
+        try {
+            getPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(actions);
+                }
+            });
+        } catch (SectionTaskException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    /**
+     * Set the pool to run sections on, instead of the one configured by chunk-translation-threads
+     *
+     * @param pool The pool, or null to run sections on the calling thread
+     */
+    public static synchronized void setPool(ForkJoinPool pool) {
+        ChunkSectionTasks.pool = pool;
+        loaded = true;
+    }
+
+    private static ForkJoinPool getPool() {
+        if (!loaded) {
+            synchronized (ChunkSectionTasks.class) {
+                if (!loaded) {
+                    int threads = Via.getConfig().getChunkTranslationThreads();
+                    pool = threads > 0 ? new ForkJoinPool(threads) : null;
+                    loaded = true;
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static class SectionTaskException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SectionTaskException(Exception cause) {
+            super(cause);
+        }
+    }
+}
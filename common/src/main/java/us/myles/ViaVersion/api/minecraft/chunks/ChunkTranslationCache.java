@@ -0,0 +1,103 @@
+package us.myles.ViaVersion.api.minecraft.chunks;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import us.myles.ViaVersion.api.minecraft.Environment;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of translated chunks per world, shared between all players.
+ * <p>
+ * Chunks are looked up by their position and only returned if the untranslated chunk has the exact same bytes,
+ * so chunks which changed or come from another server with the same world are never mixed up.
+ * Entries are evicted by their size in bytes, least recently used first, and when they haven't been used for a while.
+ *
+ * @param <T> The translated chunk
+ */
+public class ChunkTranslationCache<T> {
+    private static final long EXPIRE_SECONDS = 60;
+    private final Map<Environment, Cache<Long, Entry<T>>> worlds = new EnumMap<>(Environment.class);
+
+    /**
+     * Create a new cache
+     *
+     * @param maxBytes The maximum size of the untranslated and translated chunks in the cache
+     */
+    public ChunkTranslationCache(long maxBytes) {
+        // Every world gets an equal share
+        long maxWorldBytes = Math.max(1, maxBytes / Environment.values().length);
+        for (Environment environment : Environment.values()) {
+            worlds.put(environment, CacheBuilder.newBuilder()
+                    .maximumWeight(maxWorldBytes)
+                    .weigher(new Weigher<Long, Entry<T>>() {
+                        @Override
+                        public int weigh(Long key, Entry<T> entry) {
+                            return entry.weight;
+                        }
+                    })
+                    .expireAfterAccess(EXPIRE_SECONDS, TimeUnit.SECONDS)
+                    .<Long, Entry<T>>build());
+        }
+    }
+
+    /**
+     * Get the translated chunk
+     *
+     * @param environment The world of the chunk
+     * @param chunkX      Chunk X
+     * @param chunkZ      Chunk Z
+     * @param input       The untranslated chunk
+     * @return The translated chunk, or null if it isn't cached
+     */
+    public T get(Environment environment, int chunkX, int chunkZ, byte[] input) {
+        Entry<T> entry = worlds.get(environment).getIfPresent(getChunkIndex(chunkX, chunkZ));
+        if (entry == null || !Arrays.equals(entry.input, input)) return null;
+        return entry.output;
+    }
+
+    /**
+     * Cache a translated chunk
+     *
+     * @param environment The world of the chunk
+     * @param chunkX      Chunk X
+     * @param chunkZ      Chunk Z
+     * @param input       The untranslated chunk, which may not be modified anymore
+     * @param output      The translated chunk
+     * @param outputBytes The size of the translated chunk
+     */
+    public void put(Environment environment, int chunkX, int chunkZ, byte[] input, T output, int outputBytes) {
+        worlds.get(environment).put(getChunkIndex(chunkX, chunkZ), new Entry<>(input, output, input.length + outputBytes));
+    }
+
+    /**
+     * Remove a chunk, for example because it has changed
+     *
+     * @param environment The world of the chunk
+     * @param chunkX      Chunk X
+     * @param chunkZ      Chunk Z
+     */
+    public void invalidate(Environment environment, int chunkX, int chunkZ) {
+        worlds.get(environment).invalidate(getChunkIndex(chunkX, chunkZ));
+    }
+
+    private static long getChunkIndex(int x, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | (z & 0x3FFFFFFL);
+    }
+
+    private static class Entry<T> {
+        private final byte[] input;
+        private final T output;
+        private final int weight;
+
+        Entry(byte[] input, T output, int weight) {
+            this.input = input;
+            this.output = output;
+            this.weight = weight;
+        }
+    }
+}
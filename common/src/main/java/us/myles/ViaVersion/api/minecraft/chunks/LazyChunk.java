@@ -0,0 +1,93 @@
+package us.myles.ViaVersion.api.minecraft.chunks;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import io.netty.buffer.ByteBuf;
+import us.myles.ViaVersion.api.type.Type;
+
+import java.util.List;
+
+/**
+ * A chunk which only decodes its sections when they are used.
+ * <p>
+ * Every section keeps the bytes it was read from, followed by its block light and sky light if the world has sky light,
+ * until it is decoded. Sections which were never decoded can be written as those bytes again.
+ * Decoded sections are always written again, as their blocks and light can be changed without the chunk knowing.
+ */
+public class LazyChunk extends BaseChunk {
+    private final Type<ChunkSection> sectionType;
+    private final boolean skyLight;
+    private final ByteBuf[] rawSections;
+
+    /**
+     * Create a new lazy chunk
+     *
+     * @param x             Chunk X
+     * @param z             Chunk Z
+     * @param groundUp      True if it's a full chunk
+     * @param bitmask       The sections in the chunk
+     * @param rawSections   The bytes of every section by section index, they may not be modified anymore
+     * @param sectionType   The type to decode the sections with
+     * @param skyLight      True if the sections have sky light
+     * @param biomeData     The biomes, or null
+     * @param blockEntities The block entities
+     */
+    public LazyChunk(int x, int z, boolean groundUp, int bitmask, ByteBuf[] rawSections, Type<ChunkSection> sectionType, boolean skyLight, int[] biomeData, List<CompoundTag> blockEntities) {
+        super(x, z, groundUp, bitmask, new ChunkSection[rawSections.length], biomeData, blockEntities);
+        this.rawSections = rawSections;
+        this.sectionType = sectionType;
+        this.skyLight = skyLight;
+    }
+
+    @Override
+    public ChunkSection[] getSections() {
+        for (int i = 0; i < sections.length; i++) {
+            getSection(i);
+        }
+        return sections;
+    }
+
+    @Override
+    public void setSections(ChunkSection[] sections) {
+        super.setSections(sections);
+        for (int i = 0; i < rawSections.length; i++) {
+            rawSections[i] = null;
+        }
+    }
+
+    /**
+     * Get a section, and decode it if it wasn't yet
+     *
+     * @param index The index of the section
+     * @return The section, or null if it isn't set
+     */
+    public ChunkSection getSection(int index) {
+        ByteBuf raw = rawSections[index];
+        if (raw != null) {
+            try {
+                ChunkSection section = sectionType.read(raw);
+                section.readBlockLight(raw);
+                if (skyLight) {
+                    section.readSkyLight(raw);
+                }
+                sections[index] = section;
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not read section " + index + " of chunk " + x + "/" + z, e);
+            }
+            rawSections[index] = null;
+        }
+        return sections[index];
+    }
+
+    /**
+     * Get the bytes a section was read from, if it wasn't decoded yet
+     *
+     * @param index       The index of the section
+     * @param sectionType The type the bytes have to be written as
+     * @return The bytes of the section with its light, or null if it was decoded, isn't set or is another type
+     */
+    public ByteBuf getRawSection(int index, Type<ChunkSection> sectionType) {
+        ByteBuf raw = rawSections[index];
+        if (raw == null || this.sectionType != sectionType) return null;
+        return raw.duplicate();
+    }
+}
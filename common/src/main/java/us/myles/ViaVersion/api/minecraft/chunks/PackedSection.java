@@ -0,0 +1,139 @@
+package us.myles.ViaVersion.api.minecraft.chunks;
+
+import java.util.Arrays;
+
+/**
+ * Stores a value for every block of a section, packed into longs with a palette.
+ * <p>
+ * A section with only a few different values only needs a few bits per block.
+ * 0 means no value, it is always the first palette entry and a section with only zeros doesn't store any blocks.
+ */
+public class PackedSection {
+    private int[] palette = new int[2];
+    private int paletteSize = 1;
+    private int bits;
+    private long[] data;
+    private int nonZeroCount;
+
+    /**
+     * Get the value at an index
+     *
+     * @param index The block index
+     * @return The value, 0 if not set
+     */
+    public int get(int index) {
+        if (data == null) return 0;
+        return palette[getPaletteIndex(index)];
+    }
+
+    /**
+     * Set the value at an index
+     *
+     * @param index The block index
+     * @param value The value, 0 to remove it
+     */
+    public void set(int index, int value) {
+        int paletteIndex = indexOf(value);
+        if (paletteIndex == -1) {
+            if (paletteSize == 1 << bits) {
+                resize();
+            }
+            paletteIndex = addPaletteEntry(value);
+        }
+
+        int oldPaletteIndex = data == null ? 0 : getPaletteIndex(index);
+        if (oldPaletteIndex == paletteIndex) return;
+        if (oldPaletteIndex == 0) {
+            nonZeroCount++;
+        } else if (paletteIndex == 0) {
+            nonZeroCount--;
+        }
+        setPaletteIndex(index, paletteIndex);
+    }
+
+    /**
+     * Get the amount of blocks with a value
+     *
+     * @return The amount of blocks which aren't 0
+     */
+    public int getNonZeroCount() {
+        return nonZeroCount;
+    }
+
+    public boolean isEmpty() {
+        return nonZeroCount == 0;
+    }
+
+    private int indexOf(int value) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == value) return i;
+        }
+        return -1;
+    }
+
+    private int addPaletteEntry(int value) {
+        if (paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, paletteSize * 2);
+        }
+        palette[paletteSize] = value;
+        return paletteSize++;
+    }
+
+    private int getPaletteIndex(int index) {
+        return getPaletteIndex(data, bits, index);
+    }
+
+    private void setPaletteIndex(int index, int paletteIndex) {
+        setPaletteIndex(data, bits, index, paletteIndex);
+    }
+
+    // Drop palette entries which aren't used anymore, and use more bits if that isn't enough
+    private void resize() {
+        int[] counts = new int[paletteSize];
+        if (data != null) {
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                counts[getPaletteIndex(i)]++;
+            }
+        }
+
+        int[] newIndexes = new int[paletteSize];
+        int[] newPalette = new int[palette.length];
+        int newPaletteSize = 1; // 0 always stays
+        for (int i = 1; i < paletteSize; i++) {
+            if (counts[i] == 0) continue;
+            newIndexes[i] = newPaletteSize;
+            newPalette[newPaletteSize++] = palette[i];
+        }
+
+        // Values can't span two longs, so only use bits which fit into a long exactly
+        int newBits = Math.max(bits, 1);
+        while (newPaletteSize >= 1 << newBits) {
+            newBits *= 2;
+        }
+
+        long[] newData = new long[ChunkSection.SIZE * newBits / 64];
+        if (data != null) {
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                setPaletteIndex(newData, newBits, i, newIndexes[getPaletteIndex(i)]);
+            }
+        }
+        data = newData;
+        bits = newBits;
+        palette = newPalette;
+        paletteSize = newPaletteSize;
+    }
+
+    private static int getPaletteIndex(long[] data, int bits, int index) {
+        int valuesPerLong = 64 / bits;
+        int shift = (index % valuesPerLong) * bits;
+        return (int) (data[index / valuesPerLong] >>> shift) & ((1 << bits) - 1);
+    }
+
+    private static void setPaletteIndex(long[] data, int bits, int index, int paletteIndex) {
+        int valuesPerLong = 64 / bits;
+        int shift = (index % valuesPerLong) * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        int longIndex = index / valuesPerLong;
+        data[longIndex] = data[longIndex] & ~mask | ((long) paletteIndex << shift);
+    }
+}
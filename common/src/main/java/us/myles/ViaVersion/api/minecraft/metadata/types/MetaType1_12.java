@@ -24,11 +24,12 @@ public enum MetaType1_12 implements MetaType {
     NBTTag(13, Type.NBT),
     Discontinued(99, null);
 
+    private static final MetaType1_12[] VALUES = values();
     private final int typeID;
     private final Type type;
 
     public static MetaType1_12 byId(int id) {
-        return values()[id];
+        return VALUES[id];
     }
 
 }
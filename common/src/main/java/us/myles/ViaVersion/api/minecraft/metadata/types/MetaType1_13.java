@@ -27,11 +27,12 @@ public enum MetaType1_13 implements MetaType {
     PARTICLE(15, Types1_13.PARTICLE),
     Discontinued(99, null);
 
+    private static final MetaType1_13[] VALUES = values();
     private final int typeID;
     private final Type type;
 
     public static MetaType1_13 byId(int id) {
-        return values()[id];
+        return VALUES[id];
     }
 
 }
@@ -30,11 +30,12 @@ public enum MetaType1_14 implements MetaType {
     Pose(18, Type.VAR_INT),
     Discontinued(99, null);
 
+    private static final MetaType1_14[] VALUES = values();
     private final int typeID;
     private final Type type;
 
     public static MetaType1_14 byId(int id) {
-        return values()[id];
+        return VALUES[id];
     }
 
 }
@@ -18,10 +18,11 @@ public enum MetaType1_8 implements MetaType {
     Rotation(7, Type.ROTATION),
     NonExistent(-1, Type.NOTHING);
 
+    private static final MetaType1_8[] VALUES = values();
     private final int typeID;
     private final Type type;
 
     public static MetaType1_8 byId(int id) {
-        return values()[id];
+        return VALUES[id];
     }
 }
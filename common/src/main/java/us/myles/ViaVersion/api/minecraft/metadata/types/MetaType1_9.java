@@ -23,11 +23,12 @@ public enum MetaType1_9 implements MetaType {
     BlockID(12, Type.VAR_INT),
     Discontinued(99, null);
 
+    private static final MetaType1_9[] VALUES = values();
     private final int typeID;
     private final Type type;
 
     public static MetaType1_9 byId(int id) {
-        return values()[id];
+        return VALUES[id];
     }
 
 }
@@ -0,0 +1,235 @@
+package us.myles.ViaVersion.api.protocol;
+
+import us.myles.ViaVersion.api.PacketWrapper;
+import us.myles.ViaVersion.api.Via;
+import us.myles.ViaVersion.api.remapper.PacketRemapper;
+import us.myles.ViaVersion.exception.CancelException;
+import us.myles.ViaVersion.packets.Direction;
+import us.myles.ViaVersion.packets.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Packet id translation tables of a list of protocols.
+ * <p>
+ * For every state, direction and packet id the table holds the final packet id
+ * and the protocols which have to remap the packet, so protocols which only change the id are skipped.
+ * Protocols with a remapper are kept even if it only passes values through, as stored values may have to be converted.
+ * Tables are cached, so pipelines with the same protocols share them.
+ */
+public class CompiledPipeline {
+    private static final Map<List<Protocol>, CompiledPipeline> CACHE = new ConcurrentHashMap<>();
+    private static final State[] STATES = State.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final List<Protocol> incoming;
+    private final List<Protocol> outgoing;
+    private final PacketTransform[][] tables = new PacketTransform[DIRECTIONS.length * STATES.length][];
+    // Protocols which override transform, in pipeline order
+    private final boolean[] customTransform;
+    private final boolean[] customPassthroughId;
+
+    private CompiledPipeline(List<Protocol> protocols) {
+        List<Protocol> reversed = new ArrayList<>(protocols);
+        Collections.reverse(reversed);
+        this.incoming = Collections.unmodifiableList(protocols);
+        this.outgoing = Collections.unmodifiableList(reversed);
+        this.customTransform = new boolean[protocols.size()];
+        this.customPassthroughId = new boolean[protocols.size()];
+        for (int i = 0; i < protocols.size(); i++) {
+            customTransform[i] = overrides(protocols.get(i), "transform", Direction.class, State.class, PacketWrapper.class);
+            customPassthroughId[i] = overrides(protocols.get(i), "getPassthroughId", Direction.class, State.class, int.class);
+        }
+
+        int maxPacketId = -1;
+        for (Protocol protocol : protocols) {
+            maxPacketId = Math.max(maxPacketId, protocol.getMaxPacketId());
+        }
+        for (Direction direction : DIRECTIONS) {
+            for (State state : STATES) {
+                PacketTransform[] table = new PacketTransform[maxPacketId + 1];
+                for (int packetId = 0; packetId < table.length; packetId++) {
+                    table[packetId] = compile(direction, state, packetId);
+                }
+                tables[direction.ordinal() * STATES.length + state.ordinal()] = table;
+            }
+        }
+    }
+
+    /**
+     * Get the compiled tables for a list of protocols in pipeline order
+     *
+     * @param protocols The protocols
+     * @return The compiled pipeline, shared with pipelines which have the same protocols
+     */
+    public static CompiledPipeline of(List<Protocol> protocols) {
+        List<Protocol> key = new ArrayList<>(protocols);
+        CompiledPipeline compiled = CACHE.get(key);
+        if (compiled == null) {
+            compiled = new CompiledPipeline(key);
+            CACHE.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Get the protocols in the order a packet goes through them
+     *
+     * @param direction The direction of the packet
+     * @return Read-only list of the protocols
+     */
+    public List<Protocol> getProtocols(Direction direction) {
+        return direction == Direction.OUTGOING ? outgoing : incoming;
+    }
+
+    /**
+     * Get the id a packet is transformed to, if no protocol has to touch its content.
+     * This only applies to packets which are still encoded, values stored in a {@link PacketWrapper} may still have to be converted.
+     *
+     * @param direction The direction the packet is going in
+     * @param state     The current protocol state
+     * @param packetId  The current packet id
+     * @return The new packet id, or -1 if the packet has to be transformed
+     */
+    public int getPassthroughId(Direction direction, State state, int packetId) {
+        PacketTransform transform = get(direction, state, packetId);
+        if (transform == null || !transform.passthrough) return -1;
+        return transform.finalId;
+    }
+
+    /**
+     * Transform a packet using the table
+     *
+     * @param direction     The direction the packet is going in
+     * @param state         The current protocol state
+     * @param packetWrapper The packet wrapper to transform
+     * @return False if the packet id isn't in the table, in which case the packet still has to be transformed
+     * @throws Exception Throws exception if it fails to transform
+     */
+    public boolean transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
+        PacketTransform transform = get(direction, state, packetWrapper.getId());
+        if (transform == null) return false;
+
+        List<Protocol> protocols = getProtocols(direction);
+        PacketStats stats = Via.getManager().getPacketStats();
+        int bytes = packetWrapper.getReadableBytes();
+        for (int i = 0; i < transform.protocols.length; i++) {
+            PacketRemapper remapper = transform.remappers[i];
+            Protocol protocol = protocols.get(transform.protocols[i]);
+            long start = stats.start();
+            try {
+                if (remapper == null) {
+                    packetWrapper.setId(transform.inputIds[i]);
+                    protocol.transform(direction, state, packetWrapper);
+                } else {
+                    packetWrapper.setId(transform.outputIds[i]);
+                    remapper.remap(packetWrapper);
+                    if (packetWrapper.isCancelled()) {
+                        throw Via.getManager().isDebug() ? new CancelException() : CancelException.CACHED;
+                    }
+                }
+            } finally {
+                stats.record(protocol, direction, state, transform.inputIds[i], bytes, start);
+            }
+            // Reset the reader for the packetWrapper (So it can be recycled across packets)
+            packetWrapper.resetReader();
+
+            if (packetWrapper.getId() != transform.outputIds[i]) {
+                // A handler changed the id, so the rest of the table doesn't apply
+                packetWrapper.apply(direction, state, transform.protocols[i] + 1, protocols);
+                return true;
+            }
+        }
+        packetWrapper.setId(transform.finalId);
+        return true;
+    }
+
+    private PacketTransform get(Direction direction, State state, int packetId) {
+        PacketTransform[] table = tables[direction.ordinal() * STATES.length + state.ordinal()];
+        return packetId >= 0 && packetId < table.length ? table[packetId] : null;
+    }
+
+    private PacketTransform compile(Direction direction, State state, int packetId) {
+        List<Protocol> protocols = getProtocols(direction);
+        List<Integer> indexes = new ArrayList<>();
+        List<PacketRemapper> remappers = new ArrayList<>();
+        List<Integer> inputIds = new ArrayList<>();
+        List<Integer> outputIds = new ArrayList<>();
+
+        boolean passthrough = true;
+
+        int id = packetId;
+        for (int i = 0; i < protocols.size(); i++) {
+            Protocol protocol = protocols.get(i);
+            int pipelineIndex = direction == Direction.OUTGOING ? protocols.size() - 1 - i : i;
+            boolean customTransform = this.customTransform[pipelineIndex];
+            Protocol.ProtocolPacket protocolPacket = protocol.getProtocolPacket(direction, state, id);
+            // If transform is overridden, only trust getPassthroughId if it is overridden as well
+            if (!customTransform || customPassthroughId[pipelineIndex]) {
+                int passthroughId = protocol.getPassthroughId(direction, state, id);
+                if (passthroughId == -1) {
+                    passthrough = false;
+                } else if (protocolPacket == null || protocolPacket.getRemapper() == null) {
+                    id = passthroughId;
+                    continue;
+                }
+                // Remappers which only pass values through still have to convert values a previous protocol wrote with another type
+            } else {
+                passthrough = false;
+            }
+
+            int outputId = id;
+            if (protocolPacket != null) {
+                outputId = direction == Direction.OUTGOING ? protocolPacket.getNewID() : protocolPacket.getOldID();
+            }
+            indexes.add(i);
+            // Protocols overriding transform have to be called directly
+            remappers.add(customTransform || protocolPacket == null ? null : protocolPacket.getRemapper());
+            inputIds.add(id);
+            outputIds.add(outputId);
+            id = outputId;
+        }
+        return new PacketTransform(toArray(indexes), remappers.toArray(new PacketRemapper[0]), toArray(inputIds), toArray(outputIds), id, passthrough);
+    }
+
+    private static boolean overrides(Protocol protocol, String name, Class<?>... parameterTypes) {
+        try {
+            return protocol.getClass().getMethod(name, parameterTypes).getDeclaringClass() != Protocol.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static class PacketTransform {
+        // Index of the protocols which have to remap the packet
+        private final int[] protocols;
+        // Remapper of those protocols, null if the protocol has to be called directly
+        private final PacketRemapper[] remappers;
+        private final int[] inputIds;
+        private final int[] outputIds;
+        private final int finalId;
+        // True if the protocols only pass values through, so a packet without stored values keeps its content
+        private final boolean passthrough;
+
+        PacketTransform(int[] protocols, PacketRemapper[] remappers, int[] inputIds, int[] outputIds, int finalId, boolean passthrough) {
+            this.protocols = protocols;
+            this.remappers = remappers;
+            this.inputIds = inputIds;
+            this.outputIds = outputIds;
+            this.finalId = finalId;
+            this.passthrough = passthrough;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package us.myles.ViaVersion.api.protocol;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import us.myles.ViaVersion.packets.Direction;
+import us.myles.ViaVersion.packets.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and transform times per protocol, state, direction and packet id.
+ * <p>
+ * Counts and bytes are exact and kept in striped counters, so event loops don't contend on them.
+ * Only one in {@link #SAMPLE_RATE} transforms is timed, the times go into a log-linear histogram.
+ * Packets of which only the id is rewritten are counted under {@link ProtocolPipeline}, without times.
+ */
+public class PacketStats {
+    // One in this many transforms is timed
+    public static final int SAMPLE_RATE = 16;
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+    private static final State[] STATES = State.values();
+
+    private final ConcurrentHashMap<Class<? extends Protocol>, Tables> protocols = new ConcurrentHashMap<>();
+    @Getter
+    @Setter
+    private volatile boolean enabled;
+
+    /**
+     * Start timing a transform, if this transform is sampled.
+     *
+     * @return The start time to pass to {@link #record(Protocol, Direction, State, int, int, long)}
+     */
+    public long start() {
+        if (!enabled || ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) return NOT_TIMED;
+        return System.nanoTime();
+    }
+
+    /**
+     * Record a transform, does nothing if the stats are disabled.
+     *
+     * @param protocol  The protocol which transformed the packet
+     * @param direction The direction of the packet
+     * @param state     The state of the connection
+     * @param packetId  The packet id the protocol got
+     * @param bytes     The size of the packet
+     * @param start     The value returned by {@link #start()}
+     */
+    public void record(Protocol protocol, Direction direction, State state, int packetId, int bytes, long start) {
+        if (!enabled) return;
+        long nanos = start == NOT_TIMED ? -1 : System.nanoTime() - start;
+        getEntry(protocol.getClass(), direction, state, packetId).record(bytes, nanos);
+    }
+
+    /**
+     * Record a packet which passed through the pipeline with only its id rewritten, does nothing if the stats are disabled.
+     *
+     * @param direction The direction of the packet
+     * @param state     The state of the connection
+     * @param packetId  The packet id the pipeline got
+     * @param bytes     The size of the packet
+     */
+    public void recordPassthrough(Direction direction, State state, int packetId, int bytes) {
+        if (!enabled) return;
+        getEntry(ProtocolPipeline.class, direction, state, packetId).record(bytes, -1);
+    }
+
+    /**
+     * Get all entries which have been recorded
+     *
+     * @return New list of the entries
+     */
+    public List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>();
+        for (Tables tables : protocols.values()) {
+            for (ConcurrentHashMap<Integer, Entry> table : tables.tables) {
+                entries.addAll(table.values());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Remove all recorded entries
+     */
+    public void reset() {
+        protocols.clear();
+    }
+
+    private Entry getEntry(Class<? extends Protocol> protocol, Direction direction, State state, int packetId) {
+        Tables tables = protocols.get(protocol);
+        if (tables == null) {
+            tables = new Tables();
+            Tables previous = protocols.putIfAbsent(protocol, tables);
+            if (previous != null) tables = previous;
+        }
+
+        ConcurrentHashMap<Integer, Entry> table = tables.tables.get(direction.ordinal() * STATES.length + state.ordinal());
+        Entry entry = table.get(packetId);
+        if (entry == null) {
+            entry = new Entry(protocol, direction, state, packetId);
+            Entry previous = table.putIfAbsent(packetId, entry);
+            if (previous != null) entry = previous;
+        }
+        return entry;
+    }
+
+    // Entries of a protocol, per direction and state
+    private static class Tables {
+        private final List<ConcurrentHashMap<Integer, Entry>> tables = new ArrayList<>();
+
+        private Tables() {
+            for (int i = 0; i < Direction.values().length * STATES.length; i++) {
+                tables.add(new ConcurrentHashMap<Integer, Entry>());
+            }
+        }
+    }
+
+    @Getter
+    public static class Entry {
+        // Stripes of count, bytes, timed count and timed nanos, padded to a cache line each
+        private static final int STRIPES = 8;
+        private static final int STRIPE_SIZE = 8;
+        private static final int COUNT = 0;
+        private static final int BYTES = 1;
+        private static final int TIMED = 2;
+        private static final int NANOS = 3;
+        // 4 sub buckets for every power of two up to 2^40 ns
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int MAX_BITS = 40;
+        private static final int BUCKETS = (MAX_BITS + 1) << SUB_BUCKET_BITS;
+
+        private final Class<? extends Protocol> protocol;
+        private final Direction direction;
+        private final State state;
+        private final int packetId;
+        @Getter(AccessLevel.NONE)
+        private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+        @Getter(AccessLevel.NONE)
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        Entry(Class<? extends Protocol> protocol, Direction direction, State state, int packetId) {
+            this.protocol = protocol;
+            this.direction = direction;
+            this.state = state;
+            this.packetId = packetId;
+        }
+
+        void record(int bytes, long nanos) {
+            int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+            counters.getAndIncrement(stripe + COUNT);
+            counters.getAndAdd(stripe + BYTES, bytes);
+            if (nanos >= 0) {
+                counters.getAndIncrement(stripe + TIMED);
+                counters.getAndAdd(stripe + NANOS, nanos);
+                histogram.getAndIncrement(bucket(nanos));
+            }
+        }
+
+        /**
+         * Check if this entry counts packets of which only the id was rewritten, these aren't timed
+         *
+         * @return True if the packets passed through the pipeline
+         */
+        public boolean isPassthrough() {
+            return protocol == ProtocolPipeline.class;
+        }
+
+        public long getCount() {
+            return sum(COUNT);
+        }
+
+        public long getBytes() {
+            return sum(BYTES);
+        }
+
+        /**
+         * Get the amount of transforms which were timed
+         *
+         * @return The amount of samples
+         */
+        public long getTimedCount() {
+            return sum(TIMED);
+        }
+
+        /**
+         * Get the average time of the timed transforms
+         *
+         * @return The average in nanoseconds, 0 if none were timed
+         */
+        public long getAverageNanos() {
+            long timed = getTimedCount();
+            return timed == 0 ? 0 : sum(NANOS) / timed;
+        }
+
+        /**
+         * Estimate the total time spent in the transforms, based on the timed transforms
+         *
+         * @return The time in nanoseconds
+         */
+        public long getEstimatedTotalNanos() {
+            return getAverageNanos() * getCount();
+        }
+
+        /**
+         * Get a percentile of the timed transforms, precise to about 25%
+         *
+         * @param percentile The percentile, between 0 and 100
+         * @return The upper bound of the histogram bucket in nanoseconds, 0 if none were timed
+         */
+        public long getPercentileNanos(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                total += histogram.get(i);
+            }
+            if (total == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100D));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+
+        private long sum(int counter) {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) {
+                sum += counters.get(i * STRIPE_SIZE + counter);
+            }
+            return sum;
+        }
+
+        private static int bucket(long nanos) {
+            int bits = 63 - Long.numberOfLeadingZeros(nanos);
+            if (bits < SUB_BUCKET_BITS) return (int) nanos;
+            if (bits > MAX_BITS) return BUCKETS - 1;
+            int shift = bits - SUB_BUCKET_BITS;
+            // The highest bit selects the power of two, the bits below select the sub bucket
+            return (bits << SUB_BUCKET_BITS) + (int) ((nanos >>> shift) & ((1 << SUB_BUCKET_BITS) - 1));
+        }
+
+        private static long upperBound(int bucket) {
+            int bits = bucket >>> SUB_BUCKET_BITS;
+            if (bits < SUB_BUCKET_BITS) return bucket;
+            int shift = bits - SUB_BUCKET_BITS;
+            long subBucket = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+            return (((1L << SUB_BUCKET_BITS) | subBucket) + 1 << shift) - 1;
+        }
+    }
+}
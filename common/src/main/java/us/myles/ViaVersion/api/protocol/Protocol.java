@@ -173,6 +173,50 @@ public abstract class Protocol {
         }
     }
 
+    /**
+     * Get the id a packet is transformed to, if this protocol doesn't have to touch its content.
+     *
+     * @param direction The direction the packet is going in
+     * @param state     The current protocol state
+     * @param packetId  The current packet id
+     * @return The new packet id, or -1 if the packet has to be transformed using {@link #transform(Direction, State, PacketWrapper)}
+     */
+    public int getPassthroughId(Direction direction, State state, int packetId) {
+        ProtocolPacket protocolPacket = getProtocolPacket(direction, state, packetId);
+        if (protocolPacket == null) {
+            return packetId;
+        }
+        if (protocolPacket.getRemapper() != null && !protocolPacket.getRemapper().isPassthroughOnly()) {
+            return -1;
+        }
+        return direction == Direction.OUTGOING ? protocolPacket.getNewID() : protocolPacket.getOldID();
+    }
+
+    ProtocolPacket getProtocolPacket(Direction direction, State state, int packetId) {
+        Map<Pair<State, Integer>, ProtocolPacket> packetMap = (direction == Direction.OUTGOING ? outgoing : incoming);
+        return packetMap.get(new Pair<>(state, packetId));
+    }
+
+    boolean hasRegisteredPackets() {
+        return !incoming.isEmpty() || !outgoing.isEmpty();
+    }
+
+    /**
+     * Get the highest packet id used by a registered packet
+     *
+     * @return The highest packet id, -1 if no packets are registered
+     */
+    int getMaxPacketId() {
+        int max = -1;
+        for (ProtocolPacket protocolPacket : incoming.values()) {
+            max = Math.max(max, Math.max(protocolPacket.getOldID(), protocolPacket.getNewID()));
+        }
+        for (ProtocolPacket protocolPacket : outgoing.values()) {
+            max = Math.max(max, Math.max(protocolPacket.getOldID(), protocolPacket.getNewID()));
+        }
+        return max;
+    }
+
     @Override
     public String toString() {
         return "Protocol:" + getClass().getSimpleName();
@@ -1,9 +1,12 @@
 package us.myles.ViaVersion.api.protocol;
 
+import io.netty.buffer.ByteBuf;
 import us.myles.ViaVersion.api.PacketWrapper;
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.platform.ViaPlatform;
+import us.myles.ViaVersion.api.type.Type;
+import us.myles.ViaVersion.api.type.types.VarIntType;
 import us.myles.ViaVersion.packets.Direction;
 import us.myles.ViaVersion.packets.PacketType;
 import us.myles.ViaVersion.packets.State;
@@ -12,12 +15,14 @@ import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 public class ProtocolPipeline extends Protocol {
-    private List<Protocol> protocolList;
+    private static final List<Protocol> BASE_PIPES = Collections.singletonList(ProtocolRegistry.BASE_PROTOCOL);
+    // Read-only, it's replaced when changed so it can be shared between connections
+    private volatile List<Protocol> protocolList;
     private UserConnection userConnection;
+    private volatile CompiledPipeline compiledPipeline;
 
     public ProtocolPipeline(UserConnection userConnection) {
         super();
@@ -26,9 +31,8 @@ public class ProtocolPipeline extends Protocol {
 
     @Override
     protected void registerPackets() {
-        protocolList = new CopyOnWriteArrayList<>();
         // This is a pipeline so we register basic pipes
-        protocolList.add(ProtocolRegistry.BASE_PROTOCOL);
+        protocolList = BASE_PIPES;
     }
 
     @Override
@@ -54,33 +58,54 @@ public class ProtocolPipeline extends Protocol {
      */
     public void add(Protocol protocol) {
         if (protocolList != null) {
-            protocolList.add(protocol);
+            List<Protocol> protocols = new ArrayList<>(protocolList);
+            protocols.add(protocol);
             protocol.init(userConnection);
             // Move base Protocols to the end, so the login packets can be modified by other protocols
             List<Protocol> toMove = new ArrayList<>();
-            for (Protocol p : protocolList) {
+            for (Protocol p : protocols) {
                 if (ProtocolRegistry.isBaseProtocol(p)) {
                     toMove.add(p);
                 }
             }
-            protocolList.removeAll(toMove);
-            protocolList.addAll(toMove);
+            protocols.removeAll(toMove);
+            protocols.addAll(toMove);
+            protocolList = Collections.unmodifiableList(protocols);
+            compiledPipeline = null;
         } else {
             throw new NullPointerException("Tried to add protocol to early");
         }
     }
 
+    /**
+     * Replace the protocols of the pipeline with the shared protocols from a client version to a server version,
+     * see {@link ProtocolRegistry#getPipelineProtocols(int, int)}.
+     * This will call the {@link Protocol#init(UserConnection)} method of every protocol.
+     *
+     * @param clientVersion The input client version
+     * @param serverVersion The output server version
+     */
+    public void setProtocols(int clientVersion, int serverVersion) {
+        List<Protocol> protocols = ProtocolRegistry.getPipelineProtocols(clientVersion, serverVersion);
+        protocolList = protocols;
+        compiledPipeline = null;
+        for (Protocol protocol : protocols) {
+            protocol.init(userConnection);
+        }
+    }
+
     @Override
     public void transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
         int originalID = packetWrapper.getId();
-        List<Protocol> protocols = new ArrayList<>(protocolList);
-        // Other way if outgoing
-        if (direction == Direction.OUTGOING)
-            Collections.reverse(protocols);
+        CompiledPipeline compiledPipeline = getCompiledPipeline();
 
         // Apply protocols
-        packetWrapper.apply(direction, state, 0, protocols);
-        super.transform(direction, state, packetWrapper);
+        if (!compiledPipeline.transform(direction, state, packetWrapper)) {
+            packetWrapper.apply(direction, state, 0, compiledPipeline.getProtocols(direction));
+        }
+        if (hasRegisteredPackets()) {
+            super.transform(direction, state, packetWrapper);
+        }
 
         if (Via.getManager().isDebug()) {
             // Debug packet
@@ -138,6 +163,45 @@ public class ProtocolPipeline extends Protocol {
         }
     }
 
+    @Override
+    public int getPassthroughId(Direction direction, State state, int packetId) {
+        // Packets have to go through transform to be logged
+        if (Via.getManager().isDebug()) return -1;
+
+        packetId = getCompiledPipeline().getPassthroughId(direction, state, packetId);
+        return packetId == -1 || !hasRegisteredPackets() ? packetId : super.getPassthroughId(direction, state, packetId);
+    }
+
+    /**
+     * Transform a packet without touching its content, this is possible if the protocols only change its id.
+     * The packet id is rewritten in place, the reader index of the buffer is left at the packet id.
+     *
+     * @param direction The direction the packet is going in
+     * @param state     The current protocol state
+     * @param buffer    The packet, with the reader index at the packet id
+     * @return True if the packet was transformed, false if it has to go through {@link #transform(Direction, State, PacketWrapper)}
+     * @throws Exception If it fails to read the packet id
+     */
+    public boolean transformPassthrough(Direction direction, State state, ByteBuf buffer) throws Exception {
+        int readerIndex = buffer.readerIndex();
+        int id = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
+        int idLength = buffer.readerIndex() - readerIndex;
+        buffer.readerIndex(readerIndex);
+
+        int newId = getPassthroughId(direction, state, id);
+        if (newId == -1) return false;
+        if (newId != id) {
+            // Only rewrite in place if the length of the id doesn't change, otherwise the content has to move
+            if (VarIntType.getLength(newId) != idLength) return false;
+            int writerIndex = buffer.writerIndex();
+            buffer.writerIndex(readerIndex);
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, newId);
+            buffer.writerIndex(writerIndex);
+        }
+        Via.getManager().getPacketStats().recordPassthrough(direction, state, id, buffer.readableBytes());
+        return true;
+    }
+
     /**
      * Check if the pipeline contains a protocol
      *
@@ -170,6 +234,11 @@ public class ProtocolPipeline extends Protocol {
         return false;
     }
 
+    /**
+     * Get the protocols of the pipeline
+     *
+     * @return Read-only list of the protocols, use {@link #add(Protocol)} to change it
+     */
     public List<Protocol> pipes() {
         return protocolList;
     }
@@ -179,7 +248,20 @@ public class ProtocolPipeline extends Protocol {
      * /!\ WARNING - It doesn't add version-specific base Protocol
      */
     public void cleanPipes() {
-        pipes().clear();
         registerPackets();
+        compiledPipeline = null;
+    }
+
+    /**
+     * Get the packet id translation tables of the current protocols, they are compiled when the pipeline changes.
+     *
+     * @return The compiled pipeline
+     */
+    public CompiledPipeline getCompiledPipeline() {
+        CompiledPipeline compiledPipeline = this.compiledPipeline;
+        if (compiledPipeline == null) {
+            this.compiledPipeline = compiledPipeline = CompiledPipeline.of(protocolList);
+        }
+        return compiledPipeline;
     }
 }
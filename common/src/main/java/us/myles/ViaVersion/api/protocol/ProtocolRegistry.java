@@ -1,5 +1,6 @@
 package us.myles.ViaVersion.api.protocol;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
@@ -38,7 +39,10 @@ public class ProtocolRegistry {
     public static int SERVER_PROTOCOL = -1;
     // Input Version -> Output Version & Protocol (Allows fast lookup)
     private static final Map<Integer, Map<Integer, Protocol>> registryMap = new ConcurrentHashMap<>();
-    private static final Map<Pair<Integer, Integer>, List<Pair<Integer, Protocol>>> pathCache = new ConcurrentHashMap<>();
+    private static final Map<Protocol, Integer> protocolCosts = new ConcurrentHashMap<>();
+    // Server Version -> Client Version -> Path (Computed once per server version, replaced when the versions are refreshed)
+    private static volatile Map<Integer, Map<Integer, List<Pair<Integer, Protocol>>>> routeTables = new ConcurrentHashMap<>();
+    private static final Map<Pair<Integer, Integer>, List<Protocol>> pipelineCache = new ConcurrentHashMap<>();
     private static final List<Protocol> registerList = Lists.newCopyOnWriteArrayList();
     private static final Set<Integer> supportedVersions = Sets.newConcurrentHashSet();
     private static final List<Pair<Range<Integer>, Protocol>> baseProtocols = Lists.newCopyOnWriteArrayList();
@@ -87,13 +91,25 @@ public class ProtocolRegistry {
      * @param output    The output server version it converts to.
      */
     public static void registerProtocol(Protocol protocol, List<Integer> supported, Integer output) {
-        // Clear cache as this may make new routes.
-        if (pathCache.size() > 0)
-            pathCache.clear();
+        registerProtocol(protocol, supported, output, 1);
+    }
+
+    /**
+     * Register a protocol with a cost, paths with the lowest total cost are preferred.
+     * The paths are updated when the versions are refreshed, see {@link #refreshVersions()}.
+     *
+     * @param protocol  The protocol to register.
+     * @param supported Supported client versions.
+     * @param output    The output server version it converts to.
+     * @param cost      The cost of using the protocol, at least 1.
+     */
+    public static void registerProtocol(Protocol protocol, List<Integer> supported, Integer output, int cost) {
+        Preconditions.checkArgument(cost > 0, "Protocol cost must be positive");
+        protocolCosts.put(protocol, cost);
 
         for (Integer version : supported) {
             if (!registryMap.containsKey(version)) {
-                registryMap.put(version, new HashMap<Integer, Protocol>());
+                registryMap.put(version, new ConcurrentHashMap<Integer, Protocol>());
             }
 
             registryMap.get(version).put(output, protocol);
@@ -118,6 +134,9 @@ public class ProtocolRegistry {
      */
     public static void registerBaseProtocol(Protocol baseProtocol, Range<Integer> supportedProtocols) {
         baseProtocols.add(new Pair<>(supportedProtocols, baseProtocol));
+        // Pipelines may use another base protocol now
+        if (pipelineCache.size() > 0)
+            pipelineCache.clear();
         if (Via.getPlatform().isPluginEnabled()) {
             baseProtocol.registerListeners();
             baseProtocol.register(Via.getManager().getProviders());
@@ -127,12 +146,22 @@ public class ProtocolRegistry {
         }
     }
 
+    /**
+     * Recalculate the paths to the server version and the supported versions.
+     * Paths to other server versions are calculated again when they are next used.
+     */
     public static void refreshVersions() {
+        Map<Integer, List<Pair<Integer, Protocol>>> routes = ProtocolRoutes.calculate(registryMap, protocolCosts, ProtocolRegistry.SERVER_PROTOCOL);
+        Map<Integer, Map<Integer, List<Pair<Integer, Protocol>>>> tables = new ConcurrentHashMap<>();
+        tables.put(ProtocolRegistry.SERVER_PROTOCOL, routes);
+        routeTables = tables;
+        pipelineCache.clear();
+
         supportedVersions.clear();
 
         supportedVersions.add(ProtocolRegistry.SERVER_PROTOCOL);
         for (ProtocolVersion versions : ProtocolVersion.getProtocols()) {
-            List<Pair<Integer, Protocol>> paths = getProtocolPath(versions.getId(), ProtocolRegistry.SERVER_PROTOCOL);
+            List<Pair<Integer, Protocol>> paths = routes.get(versions.getId());
             if (paths == null) continue;
             supportedVersions.add(versions.getId());
             for (Pair<Integer, Protocol> path : paths)
@@ -173,53 +202,19 @@ public class ProtocolRegistry {
     }
 
     /**
-     * Calculate a path to get from an input protocol to the servers protocol.
+     * Get the paths from every client version to a server version
      *
-     * @param current       The current items in the path
-     * @param clientVersion The current input version
-     * @param serverVersion The desired output version
-     * @return The path which has been generated, null if failed.
+     * @param serverVersion The output server version
+     * @return Read-only map of client version to path
      */
-    private static List<Pair<Integer, Protocol>> getProtocolPath(List<Pair<Integer, Protocol>> current, int clientVersion, int serverVersion) {
-        if (clientVersion == serverVersion) return null; // We're already there
-        if (current.size() > 50) return null; // Fail safe, protocol too complicated.
-
-        // First check if there is any protocols for this
-        Map<Integer, Protocol> inputMap = registryMap.get(clientVersion);
-        if (inputMap == null) {
-            return null; // Not supported
-        }
-        // Next check there isn't an obvious path
-        Protocol protocol = inputMap.get(serverVersion);
-        if (protocol != null) {
-            current.add(new Pair<>(serverVersion, protocol));
-            return current; // Easy solution
+    public static Map<Integer, List<Pair<Integer, Protocol>>> getProtocolPaths(int serverVersion) {
+        Map<Integer, Map<Integer, List<Pair<Integer, Protocol>>>> tables = routeTables;
+        Map<Integer, List<Pair<Integer, Protocol>>> routes = tables.get(serverVersion);
+        if (routes == null) {
+            routes = ProtocolRoutes.calculate(registryMap, protocolCosts, serverVersion);
+            tables.put(serverVersion, routes);
         }
-        // There might be a more advanced solution... So we'll see if any of the others can get us there
-        List<Pair<Integer, Protocol>> shortest = null;
-
-        for (Map.Entry<Integer, Protocol> entry : inputMap.entrySet()) {
-            // Ensure it wasn't caught by the other loop
-            if (!entry.getKey().equals(serverVersion)) {
-                Pair<Integer, Protocol> pair = new Pair<>(entry.getKey(), entry.getValue());
-                // Ensure no recursion
-                if (!current.contains(pair)) {
-                    // Create a copy
-                    List<Pair<Integer, Protocol>> newCurrent = new ArrayList<>(current);
-                    newCurrent.add(pair);
-                    // Calculate the rest of the protocol using the current
-                    newCurrent = getProtocolPath(newCurrent, entry.getKey(), serverVersion);
-                    if (newCurrent != null) {
-                        // If it's shorter then choose it
-                        if (shortest == null || shortest.size() > newCurrent.size()) {
-                            shortest = newCurrent;
-                        }
-                    }
-                }
-            }
-        }
-
-        return shortest; // null if none found
+        return routes;
     }
 
     /**
@@ -230,19 +225,64 @@ public class ProtocolRegistry {
      * @return The path it generated, null if it failed.
      */
     public static List<Pair<Integer, Protocol>> getProtocolPath(int clientVersion, int serverVersion) {
-        Pair<Integer, Integer> protocolKey = new Pair<>(clientVersion, serverVersion);
-        // Check cache
-        List<Pair<Integer, Protocol>> protocolList = pathCache.get(protocolKey);
-        if (protocolList != null) {
-            return protocolList;
+        if (clientVersion == serverVersion) return null; // We're already there
+        return getProtocolPaths(serverVersion).get(clientVersion);
+    }
+
+    /**
+     * Describe the path from a client version to a server version, for example for debugging third party protocols
+     *
+     * @param clientVersion The input client version
+     * @param serverVersion The output server version
+     * @return The versions and protocols of the path with its cost
+     */
+    public static String explainProtocolPath(int clientVersion, int serverVersion) {
+        List<Pair<Integer, Protocol>> path = getProtocolPath(clientVersion, serverVersion);
+        if (path == null) {
+            return ProtocolVersion.getProtocol(clientVersion) + " -> " + ProtocolVersion.getProtocol(serverVersion)
+                    + (clientVersion == serverVersion ? ": no protocols needed" : ": no path");
+        }
+        StringBuilder builder = new StringBuilder(ProtocolVersion.getProtocol(clientVersion).toString());
+        int cost = 0;
+        for (Pair<Integer, Protocol> step : path) {
+            Integer protocolCost = protocolCosts.get(step.getValue());
+            cost += protocolCost == null ? 1 : protocolCost;
+            builder.append(" -[").append(step.getValue().getClass().getSimpleName()).append("]-> ")
+                    .append(ProtocolVersion.getProtocol(step.getKey()));
+        }
+        return builder.append(" (cost ").append(cost).append(')').toString();
+    }
+
+    /**
+     * Get the protocols of a pipeline from a client version to a server version,
+     * this is the path between the versions followed by the base protocols.
+     * The lists are cached, so every connection with the same versions shares them.
+     *
+     * @param clientVersion The input client version
+     * @param serverVersion The output server version, if there is no path only the base protocols are used
+     * @return Read-only list of the protocols in pipeline order
+     */
+    public static List<Protocol> getPipelineProtocols(int clientVersion, int serverVersion) {
+        Pair<Integer, Integer> pipelineKey = new Pair<>(clientVersion, serverVersion);
+        List<Protocol> protocols = pipelineCache.get(pipelineKey);
+        if (protocols != null) {
+            return protocols;
         }
-        // Generate path
-        List<Pair<Integer, Protocol>> outputPath = getProtocolPath(new ArrayList<Pair<Integer, Protocol>>(), clientVersion, serverVersion);
-        // If it found a path, cache it.
-        if (outputPath != null) {
-            pathCache.put(protocolKey, outputPath);
+
+        protocols = new ArrayList<>();
+        List<Pair<Integer, Protocol>> path = getProtocolPath(clientVersion, serverVersion);
+        if (path != null) {
+            for (Pair<Integer, Protocol> prot : path) {
+                protocols.add(prot.getValue());
+            }
         }
-        return outputPath;
+        // Base Protocols go at the end, so the login packets can be modified by other protocols
+        protocols.add(BASE_PROTOCOL);
+        protocols.add(getBaseProtocol(serverVersion));
+
+        protocols = Collections.unmodifiableList(protocols);
+        pipelineCache.put(pipelineKey, protocols);
+        return protocols;
     }
 
     public static Protocol getBaseProtocol(int serverVersion) {
@@ -0,0 +1,96 @@
+package us.myles.ViaVersion.api.protocol;
+
+import us.myles.ViaVersion.api.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the protocols to get from client versions to a server version, see {@link ProtocolRegistry#getProtocolPath(int, int)}.
+ */
+public class ProtocolRoutes {
+
+    private ProtocolRoutes() {
+    }
+
+    /**
+     * Calculate the cheapest paths from every client version to a server version.
+     * This is a Dijkstra search from the server version over the reversed protocols,
+     * equal costs are decided by the amount of protocols.
+     *
+     * @param registry      Client version to server version and the protocol between them
+     * @param protocolCosts The cost of every protocol, protocols without a cost cost 1
+     * @param serverVersion The desired output version
+     * @return Read-only map of client version to path, the server version itself isn't included.
+     */
+    public static Map<Integer, List<Pair<Integer, Protocol>>> calculate(Map<Integer, Map<Integer, Protocol>> registry, Map<Protocol, Integer> protocolCosts, int serverVersion) {
+        // Output Version -> Input Version & Protocol
+        Map<Integer, List<Pair<Integer, Protocol>>> reversed = new HashMap<>();
+        for (Map.Entry<Integer, Map<Integer, Protocol>> input : registry.entrySet()) {
+            for (Map.Entry<Integer, Protocol> output : input.getValue().entrySet()) {
+                List<Pair<Integer, Protocol>> edges = reversed.get(output.getKey());
+                if (edges == null) {
+                    reversed.put(output.getKey(), edges = new ArrayList<>());
+                }
+                edges.add(new Pair<>(input.getKey(), output.getValue()));
+            }
+        }
+
+        // Version -> Cost & Protocols to the server version
+        Map<Integer, long[]> costs = new HashMap<>();
+        // Version -> Next Version & Protocol
+        Map<Integer, Pair<Integer, Protocol>> nextHops = new HashMap<>();
+        Set<Integer> done = new HashSet<>();
+        costs.put(serverVersion, new long[]{0, 0});
+        while (true) {
+            Integer current = null;
+            long[] currentCost = null;
+            for (Map.Entry<Integer, long[]> entry : costs.entrySet()) {
+                if (done.contains(entry.getKey())) continue;
+                if (currentCost == null || compareCosts(entry.getValue(), currentCost) < 0) {
+                    current = entry.getKey();
+                    currentCost = entry.getValue();
+                }
+            }
+            if (current == null) break;
+            done.add(current);
+
+            List<Pair<Integer, Protocol>> edges = reversed.get(current);
+            if (edges == null) continue;
+            for (Pair<Integer, Protocol> edge : edges) {
+                if (done.contains(edge.getKey())) continue;
+                Integer protocolCost = protocolCosts.get(edge.getValue());
+                long[] cost = {currentCost[0] + (protocolCost == null ? 1 : protocolCost), currentCost[1] + 1};
+                long[] previous = costs.get(edge.getKey());
+                if (previous == null || compareCosts(cost, previous) < 0) {
+                    costs.put(edge.getKey(), cost);
+                    nextHops.put(edge.getKey(), new Pair<>(current, edge.getValue()));
+                }
+            }
+        }
+
+        Map<Integer, List<Pair<Integer, Protocol>>> routes = new HashMap<>();
+        for (Integer clientVersion : nextHops.keySet()) {
+            List<Pair<Integer, Protocol>> path = new ArrayList<>();
+            Integer version = clientVersion;
+            while (version != serverVersion) {
+                Pair<Integer, Protocol> hop = nextHops.get(version);
+                path.add(new Pair<>(hop.getKey(), hop.getValue()));
+                version = hop.getKey();
+            }
+            routes.put(clientVersion, Collections.unmodifiableList(path));
+        }
+        return Collections.unmodifiableMap(routes);
+    }
+
+    private static int compareCosts(long[] cost, long[] other) {
+        if (cost[0] != other[0]) return cost[0] < other[0] ? -1 : 1;
+        if (cost[1] != other[1]) return cost[1] < other[1] ? -1 : 1;
+        return 0;
+    }
+}
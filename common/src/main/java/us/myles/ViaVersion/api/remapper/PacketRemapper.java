@@ -9,7 +9,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public abstract class PacketRemapper {
-    private final List<Pair<ValueReader, ValueWriter>> valueRemappers = new ArrayList<>();
+    private final List<Pair<ValueReader<?>, ValueWriter<?>>> valueRemappers = new ArrayList<>();
+    private volatile RemapperPlan plan;
 
     public PacketRemapper() {
         registerMap();
@@ -55,7 +56,8 @@ public abstract class PacketRemapper {
      * @param <T>          The return type
      */
     public <T> void map(ValueReader<T> inputReader, ValueWriter<T> outputWriter) {
-        valueRemappers.add(new Pair<ValueReader, ValueWriter>(inputReader, outputWriter));
+        valueRemappers.add(new Pair<ValueReader<?>, ValueWriter<?>>(inputReader, outputWriter));
+        plan = null;
     }
 
     /**
@@ -89,16 +91,28 @@ public abstract class PacketRemapper {
      */
     public void remap(PacketWrapper packetWrapper) throws Exception {
         try {
-            // Read all the current values
-            for (Pair<ValueReader, ValueWriter> valueRemapper : valueRemappers) {
-                Object object = valueRemapper.getKey().read(packetWrapper);
-                // Convert object to write type :O!!!
-                valueRemapper.getValue().write(packetWrapper, object);
-            }
-            // If we had handlers we'd put them here
+            getPlan().apply(packetWrapper);
         } catch (InformativeException e) {
             e.addSource(this.getClass());
             throw e;
         }
     }
+
+    /**
+     * Check if this remapper only passes through values, so it leaves the packet content unchanged.
+     *
+     * @return True if there are no handlers or transformations
+     */
+    public boolean isPassthroughOnly() {
+        return getPlan().isPassthroughOnly();
+    }
+
+    private RemapperPlan getPlan() {
+        RemapperPlan plan = this.plan;
+        if (plan == null) {
+            // Compile the mappings on first use, so runs of passthroughs don't have to go through the value remappers
+            this.plan = plan = RemapperPlan.compile(valueRemappers);
+        }
+        return plan;
+    }
 }
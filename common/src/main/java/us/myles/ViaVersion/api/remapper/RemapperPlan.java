@@ -0,0 +1,117 @@
+package us.myles.ViaVersion.api.remapper;
+
+import us.myles.ViaVersion.api.PacketWrapper;
+import us.myles.ViaVersion.api.Pair;
+import us.myles.ViaVersion.api.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled form of the mappings of a {@link PacketRemapper}.
+ * <p>
+ * Runs of plain {@link PacketRemapper#map(Type)} passthroughs are merged into type arrays which are passed through in one loop.
+ * A run at the end of the remapper can't be seen by any handler, so it is left in the input and copied as is when the packet is written.
+ */
+class RemapperPlan {
+    private final Type<?>[][] runs;
+    private final ValueReader<?>[] readers;
+    private final ValueWriter<?>[] writers;
+    private final Type<?>[] trailing;
+
+    private RemapperPlan(Type<?>[][] runs, ValueReader<?>[] readers, ValueWriter<?>[] writers, Type<?>[] trailing) {
+        this.runs = runs;
+        this.readers = readers;
+        this.writers = writers;
+        this.trailing = trailing;
+    }
+
+    /**
+     * Compile the mappings of a remapper
+     *
+     * @param valueRemappers The registered mappings
+     * @return The compiled plan
+     */
+    public static RemapperPlan compile(List<Pair<ValueReader<?>, ValueWriter<?>>> valueRemappers) {
+        List<Type<?>[]> runs = new ArrayList<>();
+        List<ValueReader<?>> readers = new ArrayList<>();
+        List<ValueWriter<?>> writers = new ArrayList<>();
+        List<Type<?>> run = new ArrayList<>();
+
+        for (Pair<ValueReader<?>, ValueWriter<?>> valueRemapper : valueRemappers) {
+            Type<?> type = passthroughType(valueRemapper);
+            if (type != null) {
+                run.add(type);
+                continue;
+            }
+            if (!run.isEmpty()) {
+                runs.add(run.toArray(new Type<?>[0]));
+                readers.add(null);
+                writers.add(null);
+                run.clear();
+            }
+            runs.add(null);
+            readers.add(valueRemapper.getKey());
+            writers.add(valueRemapper.getValue());
+        }
+
+        return new RemapperPlan(
+                runs.toArray(new Type<?>[0][]),
+                readers.toArray(new ValueReader<?>[0]),
+                writers.toArray(new ValueWriter<?>[0]),
+                run.isEmpty() ? null : run.toArray(new Type<?>[0])
+        );
+    }
+
+    private static Type<?> passthroughType(Pair<ValueReader<?>, ValueWriter<?>> valueRemapper) {
+        if (!(valueRemapper.getKey() instanceof TypeRemapper) || !(valueRemapper.getValue() instanceof TypeRemapper)) {
+            return null;
+        }
+        Type<?> type = ((TypeRemapper<?>) valueRemapper.getKey()).getType();
+        if (type == Type.NOTHING || type != ((TypeRemapper<?>) valueRemapper.getValue()).getType()) {
+            return null;
+        }
+        return type;
+    }
+
+    /**
+     * Apply the plan to a packet
+     *
+     * @param wrapper The wrapper to remap
+     * @throws Exception Throws if it fails to write / read to the packet.
+     */
+    public void apply(PacketWrapper wrapper) throws Exception {
+        for (int i = 0; i < runs.length; i++) {
+            Type<?>[] run = runs[i];
+            if (run != null) {
+                for (Type<?> type : run) {
+                    wrapper.passthrough(type);
+                }
+            } else {
+                remap(wrapper, readers[i], writers[i]);
+            }
+        }
+
+        if (trailing != null && !wrapper.isUnchangedPassthrough(trailing)) {
+            for (Type<?> type : trailing) {
+                wrapper.passthrough(type);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void remap(PacketWrapper wrapper, ValueReader<?> reader, ValueWriter<?> writer) throws Exception {
+        Object object = reader.read(wrapper);
+        // Convert object to write type :O!!!
+        ((ValueWriter<Object>) writer).write(wrapper, object);
+    }
+
+    /**
+     * Check if the plan only passes through values, which leaves the packet content unchanged.
+     *
+     * @return True if there are no handlers or transformations
+     */
+    public boolean isPassthroughOnly() {
+        return runs.length == 0;
+    }
+}
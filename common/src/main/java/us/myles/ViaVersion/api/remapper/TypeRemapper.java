@@ -10,6 +10,10 @@ public class TypeRemapper<T> implements ValueReader<T>, ValueWriter<T> {
         this.type = type;
     }
 
+    public Type<T> getType() {
+        return type;
+    }
+
     @Override
     public T read(PacketWrapper wrapper) throws Exception {
         return wrapper.read(type);
@@ -2,6 +2,7 @@ package us.myles.ViaVersion.api.type;
 
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import io.netty.buffer.ByteBuf;
 import lombok.Getter;
 import us.myles.ViaVersion.api.minecraft.*;
 import us.myles.ViaVersion.api.minecraft.item.Item;
@@ -15,8 +16,10 @@ public abstract class Type<T> implements ByteBufReader<T>, ByteBufWriter<T> {
     /* Defined Types */
     public static final Type<Byte> BYTE = new ByteType();
     public static final Type<Byte[]> BYTE_ARRAY = new ArrayType<>(Type.BYTE);
+    public static final Type<byte[]> BYTE_ARRAY_PRIMITIVE = new ByteArrayType();
 
     public static final Type<byte[]> REMAINING_BYTES = new RemainingBytesType();
+    public static final Type<ByteBuf> REMAINING_BUFFER = new RemainingBufferType();
 
     public static final Type<Short> UNSIGNED_BYTE = new UnsignedByteType();
     public static final Type<Short[]> UNSIGNED_BYTE_ARRAY = new ArrayType<>(Type.UNSIGNED_BYTE);
@@ -53,6 +56,9 @@ public abstract class Type<T> implements ByteBufReader<T>, ByteBufWriter<T> {
     public static final Type<Integer> OPTIONAL_VAR_INT = new OptionalVarIntType();
     public static final Type<Long> VAR_LONG = new VarLongType();
     public static final Type<Long[]> VAR_LONG_ARRAY = new ArrayType<>(Type.VAR_LONG);
+    /* The variable types above, with their primitive read and write methods */
+    public static final VarIntType VAR_INT_PRIMITIVE = (VarIntType) VAR_INT;
+    public static final VarLongType VAR_LONG_PRIMITIVE = (VarLongType) VAR_LONG;
     /* Special Types */
     public static final Type<Void> NOTHING = new VoidType(); // This is purely used for remapping.
     /* MC Types */
@@ -0,0 +1,26 @@
+package us.myles.ViaVersion.api.type.types;
+
+import io.netty.buffer.ByteBuf;
+import us.myles.ViaVersion.api.type.Type;
+
+/**
+ * Byte array prefixed with its length as VarInt, without boxing the bytes like {@link Type#BYTE_ARRAY}
+ */
+public class ByteArrayType extends Type<byte[]> {
+    public ByteArrayType() {
+        super("Byte Array", byte[].class);
+    }
+
+    @Override
+    public byte[] read(ByteBuf buffer) throws Exception {
+        byte[] array = new byte[Type.VAR_INT_PRIMITIVE.readPrimitive(buffer)];
+        buffer.readBytes(array);
+        return array;
+    }
+
+    @Override
+    public void write(ByteBuf buffer, byte[] object) throws Exception {
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, object.length);
+        buffer.writeBytes(object);
+    }
+}
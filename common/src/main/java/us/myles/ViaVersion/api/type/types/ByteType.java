@@ -9,6 +9,14 @@ public class ByteType extends Type<Byte> implements TypeConverter<Byte> {
         super(Byte.class);
     }
 
+    public byte readPrimitive(ByteBuf buffer) {
+        return buffer.readByte();
+    }
+
+    public void writePrimitive(ByteBuf buffer, byte object) {
+        buffer.writeByte(object);
+    }
+
     @Override
     public Byte read(ByteBuf buffer) {
         return buffer.readByte();
@@ -9,6 +9,14 @@ public class DoubleType extends Type<Double> implements TypeConverter<Double> {
         super(Double.class);
     }
 
+    public double readPrimitive(ByteBuf buffer) {
+        return buffer.readDouble();
+    }
+
+    public void writePrimitive(ByteBuf buffer, double object) {
+        buffer.writeDouble(object);
+    }
+
     @Override
     public Double read(ByteBuf buffer) {
         return buffer.readDouble();
@@ -9,6 +9,14 @@ public class FloatType extends Type<Float> implements TypeConverter<Float> {
         super(Float.class);
     }
 
+    public float readPrimitive(ByteBuf buffer) {
+        return buffer.readFloat();
+    }
+
+    public void writePrimitive(ByteBuf buffer, float object) {
+        buffer.writeFloat(object);
+    }
+
     @Override
     public Float read(ByteBuf buffer) {
         return buffer.readFloat();
@@ -9,6 +9,14 @@ public class IntType extends Type<Integer> implements TypeConverter<Integer> {
         super(Integer.class);
     }
 
+    public int readPrimitive(ByteBuf buffer) {
+        return buffer.readInt();
+    }
+
+    public void writePrimitive(ByteBuf buffer, int object) {
+        buffer.writeInt(object);
+    }
+
     @Override
     public Integer read(ByteBuf buffer) {
         return buffer.readInt();
@@ -0,0 +1,24 @@
+package us.myles.ViaVersion.api.type.types;
+
+import io.netty.buffer.ByteBuf;
+import us.myles.ViaVersion.api.type.Type;
+
+/**
+ * The remaining bytes as a buffer, without copying them into an array.
+ * The read buffer is a slice of the input, so it's only valid as long as the input is.
+ */
+public class RemainingBufferType extends Type<ByteBuf> {
+    public RemainingBufferType() {
+        super(ByteBuf.class);
+    }
+
+    @Override
+    public ByteBuf read(ByteBuf buffer) {
+        return buffer.readSlice(buffer.readableBytes());
+    }
+
+    @Override
+    public void write(ByteBuf buffer, ByteBuf object) {
+        buffer.writeBytes(object, object.readerIndex(), object.readableBytes());
+    }
+}
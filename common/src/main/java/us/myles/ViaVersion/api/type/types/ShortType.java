@@ -9,6 +9,14 @@ public class ShortType extends Type<Short> implements TypeConverter<Short> {
         super(Short.class);
     }
 
+    public short readPrimitive(ByteBuf buffer) {
+        return buffer.readShort();
+    }
+
+    public void writePrimitive(ByteBuf buffer, short object) {
+        buffer.writeShort(object);
+    }
+
     @Override
     public Short read(ByteBuf buffer) {
         return buffer.readShort();
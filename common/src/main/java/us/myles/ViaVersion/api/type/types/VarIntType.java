@@ -10,27 +10,48 @@ public class VarIntType extends Type<Integer> implements TypeConverter<Integer>
         super("VarInt", Integer.class);
     }
 
-    @Override
-    public void write(ByteBuf buffer, Integer object) {
-        int part;
-        while (true) {
-            part = object & 0x7F;
-
-            object >>>= 7;
-            if (object != 0) {
-                part |= 0x80;
-            }
-
-            buffer.writeByte(part);
+    /**
+     * Get the amount of bytes a value takes as VarInt
+     *
+     * @param value The value
+     * @return The length, 1 to 5 bytes
+     */
+    public static int getLength(int value) {
+        if ((value & 0xFFFFFF80) == 0) return 1;
+        if ((value & 0xFFFFC000) == 0) return 2;
+        if ((value & 0xFFE00000) == 0) return 3;
+        if ((value & 0xF0000000) == 0) return 4;
+        return 5;
+    }
 
-            if (object == 0) {
-                break;
-            }
+    /**
+     * Write a VarInt without boxing, the bytes are combined so at most two writes are needed.
+     *
+     * @param buffer The buffer to write to
+     * @param value  The value
+     */
+    public void writePrimitive(ByteBuf buffer, int value) {
+        if ((value & 0xFFFFFF80) == 0) {
+            buffer.writeByte(value);
+        } else if ((value & 0xFFFFC000) == 0) {
+            buffer.writeShort((value & 0x7F | 0x80) << 8 | value >>> 7);
+        } else if ((value & 0xFFE00000) == 0) {
+            buffer.writeMedium((value & 0x7F | 0x80) << 16 | (value >>> 7 & 0x7F | 0x80) << 8 | value >>> 14);
+        } else if ((value & 0xF0000000) == 0) {
+            buffer.writeInt((value & 0x7F | 0x80) << 24 | (value >>> 7 & 0x7F | 0x80) << 16 | (value >>> 14 & 0x7F | 0x80) << 8 | value >>> 21);
+        } else {
+            buffer.writeInt((value & 0x7F | 0x80) << 24 | (value >>> 7 & 0x7F | 0x80) << 16 | (value >>> 14 & 0x7F | 0x80) << 8 | (value >>> 21 & 0x7F | 0x80));
+            buffer.writeByte(value >>> 28);
         }
     }
 
-    @Override
-    public Integer read(ByteBuf buffer) {
+    /**
+     * Read a VarInt without boxing
+     *
+     * @param buffer The buffer to read from
+     * @return The value
+     */
+    public int readPrimitive(ByteBuf buffer) {
         int out = 0;
         int bytes = 0;
         byte in;
@@ -51,6 +72,15 @@ public class VarIntType extends Type<Integer> implements TypeConverter<Integer>
         return out;
     }
 
+    @Override
+    public void write(ByteBuf buffer, Integer object) {
+        writePrimitive(buffer, object);
+    }
+
+    @Override
+    public Integer read(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
 
     @Override
     public Integer from(Object o) {
@@ -10,34 +10,34 @@ public class VarLongType extends Type<Long> implements TypeConverter<Long> {
         super("VarLong", Long.class);
     }
 
-    @Override
-    public void write(ByteBuf buffer, Long object) {
-        int part;
-        while (true) {
-            part = (int) (object & 0x7F);
-
-            object >>>= 7;
-            if (object != 0) {
-                part |= 0x80;
-            }
-
-            buffer.writeByte(part);
-
-            if (object == 0) {
-                break;
-            }
+    /**
+     * Write a VarLong without boxing
+     *
+     * @param buffer The buffer to write to
+     * @param value  The value
+     */
+    public void writePrimitive(ByteBuf buffer, long value) {
+        while ((value & 0xFFFFFFFFFFFFFF80L) != 0) {
+            buffer.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
         }
+        buffer.writeByte((int) value);
     }
 
-    @Override
-    public Long read(ByteBuf buffer) {
+    /**
+     * Read a VarLong without boxing
+     *
+     * @param buffer The buffer to read from
+     * @return The value
+     */
+    public long readPrimitive(ByteBuf buffer) {
         long out = 0;
         int bytes = 0;
         byte in;
         while (true) {
             in = buffer.readByte();
 
-            out |= (in & 0x7F) << (bytes++ * 7);
+            out |= (long) (in & 0x7F) << (bytes++ * 7);
 
             if (bytes > 10) { // 10 is maxBytes
                 throw new RuntimeException("VarLong too big");
@@ -51,6 +51,15 @@ public class VarLongType extends Type<Long> implements TypeConverter<Long> {
         return out;
     }
 
+    @Override
+    public void write(ByteBuf buffer, Long object) {
+        writePrimitive(buffer, object);
+    }
+
+    @Override
+    public Long read(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
 
     @Override
     public Long from(Object o) {
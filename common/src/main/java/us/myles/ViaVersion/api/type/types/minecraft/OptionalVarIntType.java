@@ -10,14 +10,14 @@ public class OptionalVarIntType extends Type<Integer> {
 
     @Override
     public Integer read(ByteBuf buffer) throws Exception {
-        int read = Type.VAR_INT.read(buffer);
+        int read = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
         if (read == 0) return null;
         return read - 1;
     }
 
     @Override
     public void write(ByteBuf buffer, Integer object) throws Exception {
-        if (object == null) Type.VAR_INT.write(buffer, 0);
-        else Type.VAR_INT.write(buffer, object + 1);
+        if (object == null) Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, 0);
+        else Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, object + 1);
     }
 }
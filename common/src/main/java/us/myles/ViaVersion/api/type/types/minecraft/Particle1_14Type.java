@@ -12,21 +12,21 @@ public class Particle1_14Type extends Type<Particle> {
 
     @Override
     public void write(ByteBuf buffer, Particle object) throws Exception {
-        Type.VAR_INT.write(buffer, object.getId());
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, object.getId());
         for (Particle.ParticleData data : object.getArguments())
             data.getType().write(buffer, data.getValue());
     }
 
     @Override
     public Particle read(ByteBuf buffer) throws Exception {
-        int type = Type.VAR_INT.read(buffer);
+        int type = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
         Particle particle = new Particle(type);
 
         switch (type) {
             // Block / Falling Dust /
             case 3:
             case 23:
-                particle.getArguments().add(new Particle.ParticleData(Type.VAR_INT, Type.VAR_INT.read(buffer))); // Flat Block
+                particle.getArguments().add(new Particle.ParticleData(Type.VAR_INT, Type.VAR_INT_PRIMITIVE.readPrimitive(buffer))); // Flat Block
                 break;
             // Dust
             case 14:
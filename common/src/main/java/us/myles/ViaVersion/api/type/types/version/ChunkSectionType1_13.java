@@ -1,10 +1,19 @@
 package us.myles.ViaVersion.api.type.types.version;
 
 import io.netty.buffer.ByteBuf;
+import us.myles.ViaVersion.api.minecraft.chunks.BlockStateRewriter;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
 import us.myles.ViaVersion.api.type.Type;
+import us.myles.ViaVersion.util.CompactArrayUtil;
 
 public class ChunkSectionType1_13 extends Type<ChunkSection> {
+    // Scratch array for the palette indexes of a section
+    private static final ThreadLocal<int[]> BLOCKS = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[ChunkSection.SIZE];
+        }
+    };
     private static final int GLOBAL_PALETTE = 14;
 
     public ChunkSectionType1_13() {
@@ -23,43 +32,31 @@ public class ChunkSectionType1_13 extends Type<ChunkSection> {
             bitsPerBlock = GLOBAL_PALETTE;
         }
 
-        long maxEntryValue = (1L << bitsPerBlock) - 1;
-
-        int paletteLength = bitsPerBlock == GLOBAL_PALETTE ? 0 : Type.VAR_INT.read(buffer);
+        int paletteLength = bitsPerBlock == GLOBAL_PALETTE ? 0 : Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
         // Read palette
         chunkSection.clearPalette();
         for (int i = 0; i < paletteLength; i++) {
-            chunkSection.addPaletteEntry(Type.VAR_INT.read(buffer));
+            chunkSection.addPaletteEntry(Type.VAR_INT_PRIMITIVE.readPrimitive(buffer));
         }
 
         // Read blocks
-        long[] blockData = new long[Type.VAR_INT.read(buffer)];
-        if (blockData.length > 0) {
-            int expectedLength = (int) Math.ceil(ChunkSection.SIZE * bitsPerBlock / 64.0);
-            if (blockData.length != expectedLength) {
-                throw new IllegalStateException("Block data length (" + blockData.length + ") does not match expected length (" + expectedLength + ")! bitsPerBlock=" + bitsPerBlock + ", originalBitsPerBlock=" + originalBitsPerBlock);
+        int length = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
+        if (length > 0) {
+            int expectedLength = CompactArrayUtil.getLongLength(bitsPerBlock, ChunkSection.SIZE);
+            if (length != expectedLength) {
+                throw new IllegalStateException("Block data length (" + length + ") does not match expected length (" + expectedLength + ")! bitsPerBlock=" + bitsPerBlock + ", originalBitsPerBlock=" + originalBitsPerBlock);
             }
 
-            for (int i = 0; i < blockData.length; i++) {
-                blockData[i] = buffer.readLong();
-            }
-            for (int i = 0; i < ChunkSection.SIZE; i++) {
-                int bitIndex = i * bitsPerBlock;
-                int startIndex = bitIndex / 64;
-                int endIndex = ((i + 1) * bitsPerBlock - 1) / 64;
-                int startBitSubIndex = bitIndex % 64;
-                int val;
-                if (startIndex == endIndex) {
-                    val = (int) (blockData[startIndex] >>> startBitSubIndex & maxEntryValue);
-                } else {
-                    int endBitSubIndex = 64 - startBitSubIndex;
-                    val = (int) ((blockData[startIndex] >>> startBitSubIndex | blockData[endIndex] << endBitSubIndex) & maxEntryValue);
-                }
-
-                if (bitsPerBlock == GLOBAL_PALETTE) {
+            int[] blocks = BLOCKS.get();
+            CompactArrayUtil.read(buffer, bitsPerBlock, blocks);
+            if (bitsPerBlock == GLOBAL_PALETTE) {
+                for (int i = 0; i < ChunkSection.SIZE; i++) {
+                    int val = blocks[i];
                     chunkSection.setFlatBlock(i, val);
-                } else {
-                    chunkSection.setPaletteIndex(i, val);
+                }
+            } else {
+                for (int i = 0; i < ChunkSection.SIZE; i++) {
+                    chunkSection.setPaletteIndex(i, blocks[i]);
                 }
             }
         }
@@ -78,34 +75,70 @@ public class ChunkSectionType1_13 extends Type<ChunkSection> {
             bitsPerBlock = GLOBAL_PALETTE;
         }
 
-        long maxEntryValue = (1L << bitsPerBlock) - 1;
         buffer.writeByte(bitsPerBlock);
 
         // Write pallet (or not)
         if (bitsPerBlock != GLOBAL_PALETTE) {
-            Type.VAR_INT.write(buffer, chunkSection.getPaletteSize());
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, chunkSection.getPaletteSize());
             for (int i = 0; i < chunkSection.getPaletteSize(); i++) {
-                Type.VAR_INT.write(buffer, chunkSection.getPaletteEntry(i));
+                Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, chunkSection.getPaletteEntry(i));
             }
         }
 
-        int length = (int) Math.ceil(ChunkSection.SIZE * bitsPerBlock / 64.0);
-        Type.VAR_INT.write(buffer, length);
-        long[] data = new long[length];
-        for (int index = 0; index < ChunkSection.SIZE; index++) {
-            int value = bitsPerBlock == GLOBAL_PALETTE ? chunkSection.getFlatBlock(index) : chunkSection.getPaletteIndex(index);
-            int bitIndex = index * bitsPerBlock;
-            int startIndex = bitIndex / 64;
-            int endIndex = ((index + 1) * bitsPerBlock - 1) / 64;
-            int startBitSubIndex = bitIndex % 64;
-            data[startIndex] = data[startIndex] & ~(maxEntryValue << startBitSubIndex) | ((long) value & maxEntryValue) << startBitSubIndex;
-            if (startIndex != endIndex) {
-                int endBitSubIndex = 64 - startBitSubIndex;
-                data[endIndex] = data[endIndex] >>> endBitSubIndex << endBitSubIndex | ((long) value & maxEntryValue) >> endBitSubIndex;
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, CompactArrayUtil.getLongLength(bitsPerBlock, ChunkSection.SIZE));
+        int[] blocks = BLOCKS.get();
+        for (int i = 0; i < ChunkSection.SIZE; i++) {
+            blocks[i] = bitsPerBlock == GLOBAL_PALETTE ? chunkSection.getFlatBlock(i) : chunkSection.getPaletteIndex(i);
+        }
+        CompactArrayUtil.write(buffer, bitsPerBlock, blocks);
+    }
+
+    /**
+     * Copy a section to another buffer and rewrite the block states in its palette, without decoding the blocks.
+     * Sections using the global palette store the ids per block, so those are decoded and every block is rewritten.
+     *
+     * @param input    The buffer to read the section from
+     * @param output   The buffer to write the section to
+     * @param rewriter The block state rewriter
+     * @throws Exception If the section can't be read
+     */
+    public static void rewriteBlockStates(ByteBuf input, ByteBuf output, BlockStateRewriter rewriter) throws Exception {
+        int bitsPerBlock = input.getUnsignedByte(input.readerIndex());
+        if (bitsPerBlock == 0 || bitsPerBlock > 8) {
+            ChunkSection section = Types1_13.CHUNK_SECTION.read(input);
+            for (int i = 0; i < section.getPaletteSize(); i++) {
+                section.setPaletteEntry(i, rewriter.getNewBlockStateId(section.getPaletteEntry(i)));
             }
+            Types1_13.CHUNK_SECTION.write(output, section);
+            return;
         }
-        for (long l : data) {
-            buffer.writeLong(l);
+
+        output.writeByte(input.readUnsignedByte());
+        int paletteLength = Type.VAR_INT_PRIMITIVE.readPrimitive(input);
+        Type.VAR_INT_PRIMITIVE.writePrimitive(output, paletteLength);
+        for (int i = 0; i < paletteLength; i++) {
+            Type.VAR_INT_PRIMITIVE.writePrimitive(output, rewriter.getNewBlockStateId(Type.VAR_INT_PRIMITIVE.readPrimitive(input)));
+        }
+
+        // The palette indexes stay the same, so the packed blocks are copied as they are
+        int length = Type.VAR_INT_PRIMITIVE.readPrimitive(input);
+        Type.VAR_INT_PRIMITIVE.writePrimitive(output, length);
+        output.writeBytes(input, length * 8);
+    }
+
+    /**
+     * Skip a section without decoding it
+     *
+     * @param buffer The buffer to skip the section in
+     */
+    public static void skip(ByteBuf buffer) {
+        int bitsPerBlock = buffer.readUnsignedByte();
+        if (bitsPerBlock != 0 && bitsPerBlock <= 8) {
+            int paletteLength = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
+            for (int i = 0; i < paletteLength; i++) {
+                Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
+            }
         }
+        buffer.skipBytes(Type.VAR_INT_PRIMITIVE.readPrimitive(buffer) * 8);
     }
 }
@@ -4,9 +4,17 @@ import io.netty.buffer.ByteBuf;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
 import us.myles.ViaVersion.api.type.Type;
 
-import java.nio.ByteOrder;
-
 public class ChunkSectionType1_8 extends Type<ChunkSection> {
+    /**
+     * Length of the blocks of a section, a little endian short per block.
+     */
+    public static final int BLOCKS_LENGTH = ChunkSection.SIZE * 2;
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
 
     public ChunkSectionType1_8() {
         super("Chunk Section Type", ChunkSection.class);
@@ -14,18 +22,17 @@ public class ChunkSectionType1_8 extends Type<ChunkSection> {
 
     @Override
     public ChunkSection read(ByteBuf buffer) throws Exception {
-        ChunkSection chunkSection = new ChunkSection();
-        // Don't clear palette because 0 index needs to be air in 1.9 version
-
-        ByteBuf littleEndianView = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        Scratch scratch = SCRATCH.get();
+        int paletteSize = readPalette(buffer, scratch.palette, scratch.indexes);
 
+        ChunkSection chunkSection = new ChunkSection();
+        chunkSection.clearPalette();
+        for (int i = 0; i < paletteSize; i++) {
+            chunkSection.addPaletteEntry(scratch.palette[i]);
+        }
         for (int i = 0; i < ChunkSection.SIZE; i++) {
-            int mask = littleEndianView.readShort();
-            int type = mask >> 4;
-            int data = mask & 0xF;
-            chunkSection.setBlock(i, type, data);
+            chunkSection.setPaletteIndex(i, scratch.indexes[i]);
         }
-
         return chunkSection;
     }
 
@@ -33,4 +40,48 @@ public class ChunkSectionType1_8 extends Type<ChunkSection> {
     public void write(ByteBuf buffer, ChunkSection chunkSection) throws Exception {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Read the blocks of a section as a palette and the palette index of every block.
+     * The first palette entry is always air, because the 0 index needs to be air in the 1.9 version.
+     *
+     * @param buffer  The buffer to read {@link #BLOCKS_LENGTH} bytes from
+     * @param palette The array to put the palette in, at least {@link ChunkSection#SIZE} + 1 long
+     * @param indexes The array to put the palette indexes in, at least {@link ChunkSection#SIZE} long
+     * @return The size of the palette
+     */
+    public static int readPalette(ByteBuf buffer, int[] palette, int[] indexes) {
+        Scratch scratch = SCRATCH.get();
+        byte[] data = scratch.data;
+        char[] paletteIndexes = scratch.paletteIndexes;
+        buffer.readBytes(data);
+
+        palette[0] = 0;
+        paletteIndexes[0] = 1;
+        int paletteSize = 1;
+        for (int i = 0, j = 0; i < ChunkSection.SIZE; i++, j += 2) {
+            int state = (data[j] & 0xFF) | (data[j + 1] & 0xFF) << 8;
+            int index = paletteIndexes[state] - 1;
+            if (index == -1) {
+                index = paletteSize;
+                palette[paletteSize++] = (short) state; // Block ids are read signed like before
+                paletteIndexes[state] = (char) paletteSize;
+            }
+            indexes[i] = index;
+        }
+
+        // Only clear what was used, for the next section
+        for (int i = 0; i < paletteSize; i++) {
+            paletteIndexes[palette[i] & 0xFFFF] = 0;
+        }
+        return paletteSize;
+    }
+
+    private static class Scratch {
+        private final byte[] data = new byte[BLOCKS_LENGTH];
+        // Palette index + 1 of every block state, 0 if it isn't in the palette
+        private final char[] paletteIndexes = new char[1 << 16];
+        private final int[] palette = new int[ChunkSection.SIZE + 1];
+        private final int[] indexes = new int[ChunkSection.SIZE];
+    }
 }
@@ -3,8 +3,16 @@ package us.myles.ViaVersion.api.type.types.version;
 import io.netty.buffer.ByteBuf;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
 import us.myles.ViaVersion.api.type.Type;
+import us.myles.ViaVersion.util.CompactArrayUtil;
 
 public class ChunkSectionType1_9 extends Type<ChunkSection> {
+    // Scratch array for the palette indexes of a section
+    private static final ThreadLocal<int[]> BLOCKS = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[ChunkSection.SIZE];
+        }
+    };
     private static final int GLOBAL_PALETTE = 13;
 
     public ChunkSectionType1_9() {
@@ -18,8 +26,6 @@ public class ChunkSectionType1_9 extends Type<ChunkSection> {
         // Reaad bits per block
         int bitsPerBlock = buffer.readUnsignedByte();
         int originalBitsPerBlock = bitsPerBlock;
-        long maxEntryValue = (1L << bitsPerBlock) - 1;
-
         if (bitsPerBlock == 0) {
             bitsPerBlock = GLOBAL_PALETTE;
         }
@@ -29,45 +35,35 @@ public class ChunkSectionType1_9 extends Type<ChunkSection> {
         if (bitsPerBlock > 8) {
             bitsPerBlock = GLOBAL_PALETTE;
         }
-        int paletteLength = Type.VAR_INT.read(buffer);
+        int paletteLength = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
         // Read palette
         chunkSection.clearPalette();
         for (int i = 0; i < paletteLength; i++) {
             if (bitsPerBlock != GLOBAL_PALETTE) {
-                chunkSection.addPaletteEntry(Type.VAR_INT.read(buffer));
+                chunkSection.addPaletteEntry(Type.VAR_INT_PRIMITIVE.readPrimitive(buffer));
             } else {
-                Type.VAR_INT.read(buffer);
+                Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
             }
         }
 
         // Read blocks
-        long[] blockData = new long[Type.VAR_INT.read(buffer)];
-        if (blockData.length > 0) {
-            int expectedLength = (int) Math.ceil(ChunkSection.SIZE * bitsPerBlock / 64.0);
-            if (blockData.length != expectedLength) {
-                throw new IllegalStateException("Block data length (" + blockData.length + ") does not match expected length (" + expectedLength + ")! bitsPerBlock=" + bitsPerBlock + ", originalBitsPerBlock=" + originalBitsPerBlock);
+        int length = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
+        if (length > 0) {
+            int expectedLength = CompactArrayUtil.getLongLength(bitsPerBlock, ChunkSection.SIZE);
+            if (length != expectedLength) {
+                throw new IllegalStateException("Block data length (" + length + ") does not match expected length (" + expectedLength + ")! bitsPerBlock=" + bitsPerBlock + ", originalBitsPerBlock=" + originalBitsPerBlock);
             }
 
-            for (int i = 0; i < blockData.length; i++) {
-                blockData[i] = buffer.readLong();
-            }
-            for (int i = 0; i < ChunkSection.SIZE; i++) {
-                int bitIndex = i * bitsPerBlock;
-                int startIndex = bitIndex / 64;
-                int endIndex = ((i + 1) * bitsPerBlock - 1) / 64;
-                int startBitSubIndex = bitIndex % 64;
-                int val;
-                if (startIndex == endIndex) {
-                    val = (int) (blockData[startIndex] >>> startBitSubIndex & maxEntryValue);
-                } else {
-                    int endBitSubIndex = 64 - startBitSubIndex;
-                    val = (int) ((blockData[startIndex] >>> startBitSubIndex | blockData[endIndex] << endBitSubIndex) & maxEntryValue);
-                }
-
-                if (bitsPerBlock == GLOBAL_PALETTE) {
+            int[] blocks = BLOCKS.get();
+            CompactArrayUtil.read(buffer, bitsPerBlock, blocks);
+            if (bitsPerBlock == GLOBAL_PALETTE) {
+                for (int i = 0; i < ChunkSection.SIZE; i++) {
+                    int val = blocks[i];
                     chunkSection.setBlock(i, val >> 4, val & 0xF);
-                } else {
-                    chunkSection.setPaletteIndex(i, val);
+                }
+            } else {
+                for (int i = 0; i < ChunkSection.SIZE; i++) {
+                    chunkSection.setPaletteIndex(i, blocks[i]);
                 }
             }
         }
@@ -77,45 +73,79 @@ public class ChunkSectionType1_9 extends Type<ChunkSection> {
 
     @Override
     public void write(ByteBuf buffer, ChunkSection chunkSection) throws Exception {
-        int bitsPerBlock = 4;
-        while (chunkSection.getPaletteSize() > 1 << bitsPerBlock) {
-            bitsPerBlock += 1;
-        }
-
-        if (bitsPerBlock > 8) {
-            bitsPerBlock = GLOBAL_PALETTE;
-        }
+        int bitsPerBlock = getBitsPerBlock(chunkSection.getPaletteSize());
 
-        long maxEntryValue = (1L << bitsPerBlock) - 1;
         buffer.writeByte(bitsPerBlock);
 
         // Write pallet (or not)
         if (bitsPerBlock != GLOBAL_PALETTE) {
-            Type.VAR_INT.write(buffer, chunkSection.getPaletteSize());
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, chunkSection.getPaletteSize());
             for (int i = 0; i < chunkSection.getPaletteSize(); i++) {
-                Type.VAR_INT.write(buffer, chunkSection.getPaletteEntry(i));
+                Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, chunkSection.getPaletteEntry(i));
             }
         } else {
-            Type.VAR_INT.write(buffer, 0);
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, 0);
         }
 
-        int length = (int) Math.ceil(ChunkSection.SIZE * bitsPerBlock / 64.0);
-        Type.VAR_INT.write(buffer, length);
-        long[] data = new long[length];
-        for (int index = 0; index < ChunkSection.SIZE; index++) {
-            int value = bitsPerBlock == GLOBAL_PALETTE ? chunkSection.getFlatBlock(index) : chunkSection.getPaletteIndex(index);
-            int bitIndex = index * bitsPerBlock;
-            int startIndex = bitIndex / 64;
-            int endIndex = ((index + 1) * bitsPerBlock - 1) / 64;
-            int startBitSubIndex = bitIndex % 64;
-            data[startIndex] = data[startIndex] & ~(maxEntryValue << startBitSubIndex) | ((long) value & maxEntryValue) << startBitSubIndex;
-            if (startIndex != endIndex) {
-                int endBitSubIndex = 64 - startBitSubIndex;
-                data[endIndex] = data[endIndex] >>> endBitSubIndex << endBitSubIndex | ((long) value & maxEntryValue) >> endBitSubIndex;
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, CompactArrayUtil.getLongLength(bitsPerBlock, ChunkSection.SIZE));
+        int[] blocks = BLOCKS.get();
+        for (int i = 0; i < ChunkSection.SIZE; i++) {
+            blocks[i] = bitsPerBlock == GLOBAL_PALETTE ? chunkSection.getFlatBlock(i) : chunkSection.getPaletteIndex(i);
+        }
+        CompactArrayUtil.write(buffer, bitsPerBlock, blocks);
+    }
+
+    /**
+     * Write a section from a palette, without creating a {@link ChunkSection}
+     *
+     * @param buffer      The buffer to write the section to
+     * @param palette     The palette
+     * @param paletteSize The size of the palette
+     * @param indexes     The palette index of every block, replaced by the ids if the global palette is used
+     */
+    public static void write(ByteBuf buffer, int[] palette, int paletteSize, int[] indexes) {
+        int bitsPerBlock = getBitsPerBlock(paletteSize);
+        buffer.writeByte(bitsPerBlock);
+
+        if (bitsPerBlock != GLOBAL_PALETTE) {
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, palette[i]);
+            }
+        } else {
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, 0);
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                indexes[i] = palette[indexes[i]];
             }
         }
-        for (long l : data) {
-            buffer.writeLong(l);
+
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, CompactArrayUtil.getLongLength(bitsPerBlock, ChunkSection.SIZE));
+        CompactArrayUtil.write(buffer, bitsPerBlock, indexes);
+    }
+
+    private static int getBitsPerBlock(int paletteSize) {
+        int bitsPerBlock = 4;
+        while (paletteSize > 1 << bitsPerBlock) {
+            bitsPerBlock += 1;
+        }
+
+        if (bitsPerBlock > 8) {
+            bitsPerBlock = GLOBAL_PALETTE;
+        }
+        return bitsPerBlock;
+    }
+
+    /**
+     * Skip a section without decoding it
+     *
+     * @param buffer The buffer to skip the section in
+     */
+    public static void skip(ByteBuf buffer) {
+        buffer.skipBytes(1); // Bits per block
+        int paletteLength = Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
+        for (int i = 0; i < paletteLength; i++) {
+            Type.VAR_INT_PRIMITIVE.readPrimitive(buffer);
         }
+        buffer.skipBytes(Type.VAR_INT_PRIMITIVE.readPrimitive(buffer) * 8);
     }
 }
@@ -133,6 +133,7 @@ public abstract class ViaCommandHandler implements ViaVersionCommand {
     private void registerDefaults() throws Exception {
         registerSubCommand(new ListSubCmd());
         registerSubCommand(new PPSSubCmd());
+        registerSubCommand(new StatsSubCmd());
         registerSubCommand(new DebugSubCmd());
         registerSubCommand(new DumpSubCmd());
         registerSubCommand(new DisplayLeaksSubCmd());
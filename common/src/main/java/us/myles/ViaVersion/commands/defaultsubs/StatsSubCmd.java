@@ -0,0 +1,97 @@
+package us.myles.ViaVersion.commands.defaultsubs;
+
+import us.myles.ViaVersion.api.Via;
+import us.myles.ViaVersion.api.command.ViaCommandSender;
+import us.myles.ViaVersion.api.command.ViaSubCommand;
+import us.myles.ViaVersion.api.protocol.PacketStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class StatsSubCmd extends ViaSubCommand {
+    private static final int DEFAULT_AMOUNT = 10;
+
+    @Override
+    public String name() {
+        return "stats";
+    }
+
+    @Override
+    public String description() {
+        return "Shows the packets which take the most time to transform";
+    }
+
+    @Override
+    public String usage() {
+        return "stats [on|off|reset|<amount>]";
+    }
+
+    @Override
+    public boolean execute(ViaCommandSender sender, String[] args) {
+        PacketStats stats = Via.getManager().getPacketStats();
+        int amount = DEFAULT_AMOUNT;
+        if (args.length > 0) {
+            switch (args[0].toLowerCase()) {
+                case "on":
+                case "off":
+                    stats.setEnabled(args[0].equalsIgnoreCase("on"));
+                    sendMessage(sender, "&6Packet stats are now %s", (stats.isEnabled() ? "&aenabled" : "&cdisabled"));
+                    return true;
+                case "reset":
+                    stats.reset();
+                    sendMessage(sender, "&6Packet stats have been reset.");
+                    return true;
+                default:
+                    try {
+                        amount = Integer.parseInt(args[0]);
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+            }
+        }
+
+        List<PacketStats.Entry> entries = new ArrayList<>();
+        long passthroughCount = 0;
+        long passthroughBytes = 0;
+        for (PacketStats.Entry entry : stats.getEntries()) {
+            if (entry.isPassthrough()) {
+                passthroughCount += entry.getCount();
+                passthroughBytes += entry.getBytes();
+            } else {
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries, new Comparator<PacketStats.Entry>() {
+            @Override
+            public int compare(PacketStats.Entry o1, PacketStats.Entry o2) {
+                return Long.compare(o2.getEstimatedTotalNanos(), o1.getEstimatedTotalNanos());
+            }
+        });
+
+        sendMessage(sender, "&4Packet Transform Stats &7(1 in %s timed)", PacketStats.SAMPLE_RATE);
+        if (!stats.isEnabled()) {
+            sendMessage(sender, "&cPacket stats are disabled, use /viaversion stats on to enable them.");
+        }
+        if (entries.isEmpty() && passthroughCount == 0) {
+            sendMessage(sender, "&cNo packets to display.");
+        }
+        if (passthroughCount != 0) {
+            sendMessage(sender, "&8[&6Passthrough&8] &7only the id rewritten: &f%s packets, %s bytes", passthroughCount, passthroughBytes);
+        }
+        for (PacketStats.Entry entry : entries.subList(0, Math.min(amount, entries.size()))) {
+            sendMessage(sender, "&8[&6%s&8] &b%s %s 0x%s&7: &f%s packets, %s bytes, avg %sus, p99 %sus, total ~%sms",
+                    entry.getProtocol().getSimpleName(),
+                    entry.getDirection(),
+                    entry.getState(),
+                    Integer.toHexString(entry.getPacketId()),
+                    entry.getCount(),
+                    entry.getBytes(),
+                    entry.getAverageNanos() / 1000,
+                    entry.getPercentileNanos(99) / 1000,
+                    entry.getEstimatedTotalNanos() / 1000000);
+        }
+        return true;
+    }
+}
@@ -56,15 +56,13 @@ public class BaseProtocol extends Protocol {
 
                         ProtocolPipeline pipeline = wrapper.user().get(ProtocolInfo.class).getPipeline();
                         if (protocols != null) {
-                            for (Pair<Integer, Protocol> prot : protocols) {
-                                pipeline.add(prot.getValue());
-                            }
+                            pipeline.setProtocols(info.getProtocolVersion(), protocol);
                             wrapper.set(Type.VAR_INT, 0, protocol);
+                        } else {
+                            // Only add Base Protocol
+                            pipeline.setProtocols(protocol, protocol);
                         }
 
-                        // Add Base Protocol
-                        pipeline.add(ProtocolRegistry.getBaseProtocol(protocol));
-
                         // Change state
                         if (state == 1) {
                             info.setState(State.STATUS);
@@ -98,4 +96,11 @@ public class BaseProtocol extends Protocol {
             }
         }
     }
+
+    @Override
+    public int getPassthroughId(Direction direction, State state, int packetId) {
+        // Handshake packets are checked in transform
+        if (direction == Direction.INCOMING && state == State.HANDSHAKE) return -1;
+        return super.getPassthroughId(direction, state, packetId);
+    }
 }
@@ -196,8 +196,7 @@ public class Protocol1_11To1_10 extends Protocol {
                 handler(new PacketHandler() {
                     @Override
                     public void handle(PacketWrapper wrapper) throws Exception {
-                        for (int entity : wrapper.get(Type.VAR_INT_ARRAY, 0))
-                            wrapper.user().get(EntityTracker.class).removeEntity(entity);
+                        wrapper.user().get(EntityTracker.class).removeEntities(wrapper.get(Type.VAR_INT_ARRAY, 0));
                     }
                 });
             }
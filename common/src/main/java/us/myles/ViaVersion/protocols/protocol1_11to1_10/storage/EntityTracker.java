@@ -1,56 +1,72 @@
 package us.myles.ViaVersion.protocols.protocol1_11to1_10.storage;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.Sets;
 import us.myles.ViaVersion.api.data.ExternalJoinGameListener;
 import us.myles.ViaVersion.api.data.StoredObject;
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.entities.Entity1_11Types;
-
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import us.myles.ViaVersion.util.IntObjectMap;
 
 public class EntityTracker extends StoredObject implements ExternalJoinGameListener {
-    private final Map<Integer, Entity1_11Types.EntityType> clientEntityTypes = new ConcurrentHashMap<>();
-    private final Set<Integer> holograms = Sets.newConcurrentHashSet();
+    private final IntObjectMap<TrackedEntity> entities = new IntObjectMap<>();
 
     public EntityTracker(UserConnection user) {
         super(user);
     }
 
     public void removeEntity(int entityId) {
-        clientEntityTypes.remove(entityId);
-        if (isHologram(entityId))
-            removeHologram(entityId);
+        entities.remove(entityId);
+    }
+
+    public void removeEntities(Integer[] entityIds) {
+        entities.removeAll(entityIds);
     }
 
     public void addEntity(int entityId, Entity1_11Types.EntityType type) {
-        clientEntityTypes.put(entityId, type);
+        getOrCreate(entityId).type = type;
     }
 
     public boolean has(int entityId) {
-        return clientEntityTypes.containsKey(entityId);
+        TrackedEntity entity = entities.get(entityId);
+        return entity != null && entity.type != null;
     }
 
     public Optional<Entity1_11Types.EntityType> get(int id) {
-        return Optional.fromNullable(clientEntityTypes.get(id));
+        TrackedEntity entity = entities.get(id);
+        return Optional.fromNullable(entity == null ? null : entity.type);
     }
 
     public void addHologram(int entId) {
-        holograms.add(entId);
+        getOrCreate(entId).hologram = true;
     }
 
     public boolean isHologram(int entId) {
-        return holograms.contains(entId);
+        TrackedEntity entity = entities.get(entId);
+        return entity != null && entity.hologram;
     }
 
     public void removeHologram(int entId) {
-        holograms.remove(entId);
+        TrackedEntity entity = entities.get(entId);
+        if (entity != null) {
+            entity.hologram = false;
+        }
+    }
+
+    private TrackedEntity getOrCreate(int entityId) {
+        TrackedEntity entity = entities.get(entityId);
+        if (entity == null) {
+            entities.put(entityId, entity = new TrackedEntity());
+        }
+        return entity;
     }
 
     @Override
     public void onExternalJoinGame(int playerEntityId) {
-        clientEntityTypes.put(playerEntityId, Entity1_11Types.EntityType.PLAYER);
+        addEntity(playerEntityId, Entity1_11Types.EntityType.PLAYER);
+    }
+
+    private static class TrackedEntity {
+        private Entity1_11Types.EntityType type;
+        private boolean hologram;
     }
 }
@@ -197,8 +197,7 @@ public class Protocol1_12To1_11_1 extends Protocol {
                 handler(new PacketHandler() {
                     @Override
                     public void handle(PacketWrapper wrapper) throws Exception {
-                        for (int entity : wrapper.get(Type.VAR_INT_ARRAY, 0))
-                            wrapper.user().get(EntityTracker.class).removeEntity(entity);
+                        wrapper.user().get(EntityTracker.class).removeEntities(wrapper.get(Type.VAR_INT_ARRAY, 0));
                     }
                 });
             }
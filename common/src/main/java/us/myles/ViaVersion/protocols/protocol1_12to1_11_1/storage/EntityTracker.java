@@ -5,12 +5,10 @@ import us.myles.ViaVersion.api.data.ExternalJoinGameListener;
 import us.myles.ViaVersion.api.data.StoredObject;
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.entities.Entity1_12Types;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import us.myles.ViaVersion.util.IntObjectMap;
 
 public class EntityTracker extends StoredObject implements ExternalJoinGameListener {
-    private final Map<Integer, Entity1_12Types.EntityType> clientEntityTypes = new ConcurrentHashMap<>();
+    private final IntObjectMap<Entity1_12Types.EntityType> clientEntityTypes = new IntObjectMap<>();
 
     public EntityTracker(UserConnection user) {
         super(user);
@@ -20,6 +18,10 @@ public class EntityTracker extends StoredObject implements ExternalJoinGameListe
         clientEntityTypes.remove(entityId);
     }
 
+    public void removeEntities(Integer[] entityIds) {
+        clientEntityTypes.removeAll(entityIds);
+    }
+
     public void addEntity(int entityId, Entity1_12Types.EntityType type) {
         clientEntityTypes.put(entityId, type);
     }
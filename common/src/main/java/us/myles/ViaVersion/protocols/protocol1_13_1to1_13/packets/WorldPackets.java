@@ -1,19 +1,30 @@
 package us.myles.ViaVersion.protocols.protocol1_13_1to1_13.packets;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import us.myles.ViaVersion.api.PacketWrapper;
 import us.myles.ViaVersion.api.minecraft.BlockChangeRecord;
+import us.myles.ViaVersion.api.minecraft.chunks.BlockStateRewriter;
 import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
 import us.myles.ViaVersion.api.protocol.Protocol;
+import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.api.remapper.PacketHandler;
 import us.myles.ViaVersion.api.remapper.PacketRemapper;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.packets.State;
+import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 import us.myles.ViaVersion.protocols.protocol1_13_1to1_13.Protocol1_13_1To1_13;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.types.Chunk1_13Type;
 import us.myles.ViaVersion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 
 public class WorldPackets {
+    private static final BlockStateRewriter BLOCK_STATE_REWRITER = new BlockStateRewriter() {
+        @Override
+        public int getNewBlockStateId(int blockStateId) {
+            return Protocol1_13_1To1_13.getNewBlockStateId(blockStateId);
+        }
+    };
 
     public static void register(Protocol protocol) {
         //Chunk
@@ -24,14 +35,25 @@ public class WorldPackets {
                     @Override
                     public void handle(PacketWrapper wrapper) throws Exception {
                         ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
-                        Chunk chunk = wrapper.passthrough(new Chunk1_13Type(clientWorld));
-
-                        for (ChunkSection section : chunk.getSections()) {
-                            if (section == null) continue;
-                            for (int i = 0; i < section.getPaletteSize(); i++) {
-                                section.setPaletteEntry(i, Protocol1_13_1To1_13.getNewBlockStateId(section.getPaletteEntry(i)));
+                        Chunk1_13Type type = new Chunk1_13Type(clientWorld);
+                        // The chunk can only stay encoded if no other protocol reads it as chunk
+                        int clientVersion = wrapper.user().get(ProtocolInfo.class).getProtocolVersion();
+                        if (wrapper.isReadable(type, 0) || clientVersion >= ProtocolVersion.v1_14.getId()) {
+                            Chunk chunk = wrapper.passthrough(type);
+                            for (ChunkSection section : chunk.getSections()) {
+                                if (section == null) continue;
+                                for (int i = 0; i < section.getPaletteSize(); i++) {
+                                    section.setPaletteEntry(i, Protocol1_13_1To1_13.getNewBlockStateId(section.getPaletteEntry(i)));
+                                }
                             }
+                            return;
                         }
+
+                        // Only the palettes change, so the blocks don't have to be decoded
+                        ByteBuf input = wrapper.read(Type.REMAINING_BUFFER);
+                        ByteBuf output = Unpooled.buffer(input.readableBytes());
+                        Chunk1_13Type.rewriteBlockStates(input, output, clientWorld, BLOCK_STATE_REWRITER);
+                        wrapper.write(Type.REMAINING_BUFFER, output);
                     }
                 });
             }
@@ -7,20 +7,24 @@ import us.myles.ViaVersion.api.minecraft.Position;
 import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
 
 public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
     private final String blockConnections;
     @Getter
-    private Set<Integer> blockStates = new HashSet<>();
-    private Map<Byte, Integer> connectedBlockStates = new HashMap<>();
+    private BitSet blockStates = new BitSet();
+    // The block state for every combination of connected sides, -1 if there's none
+    private int[] connectedBlockStates = new int[64];
+    private byte[] connectingFaces;
     private static final StairConnectionHandler STAIR_CONNECTION_HANDLER = new StairConnectionHandler();
 
     public AbstractFenceConnectionHandler(String blockConnections) {
         this.blockConnections = blockConnections;
+        Arrays.fill(connectedBlockStates, -1);
+        if (blockConnections != null) {
+            connectingFaces = ConnectionData.getConnectingFaces(blockConnections);
+        }
     }
 
     public ConnectionData.ConnectorInitAction getInitAction(final String key) {
@@ -30,9 +34,9 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
             public void check(WrappedBlockData blockData) {
                 if (key.equals(blockData.getMinecraftKey())) {
                     if (blockData.hasData("waterlogged") && blockData.getValue("waterlogged").equals("true")) return;
-                    blockStates.add(blockData.getSavedBlockStateId());
+                    blockStates.set(blockData.getSavedBlockStateId());
                     ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), handler);
-                    connectedBlockStates.put(getStates(blockData), blockData.getSavedBlockStateId());
+                    connectedBlockStates[getStates(blockData)] = blockData.getSavedBlockStateId();
                 }
             }
         };
@@ -47,13 +51,13 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
         return states;
     }
 
-    protected byte getStates(UserConnection user, Position position, int blockState) {
+    protected byte getStates(UserConnection user, int x, int y, int z, int blockState) {
         byte states = 0;
         boolean pre1_12 = user.get(ProtocolInfo.class).getServerProtocolVersion() < ProtocolVersion.v1_12.getId();
-        if (connects(BlockFace.EAST, getBlockData(user, position.getRelative(BlockFace.EAST)), pre1_12)) states |= 1;
-        if (connects(BlockFace.NORTH, getBlockData(user, position.getRelative(BlockFace.NORTH)), pre1_12)) states |= 2;
-        if (connects(BlockFace.SOUTH, getBlockData(user, position.getRelative(BlockFace.SOUTH)), pre1_12)) states |= 4;
-        if (connects(BlockFace.WEST, getBlockData(user, position.getRelative(BlockFace.WEST)), pre1_12)) states |= 8;
+        if (connects(BlockFace.EAST, getBlockData(user, x, y, z, BlockFace.EAST), pre1_12)) states |= 1;
+        if (connects(BlockFace.NORTH, getBlockData(user, x, y, z, BlockFace.NORTH), pre1_12)) states |= 2;
+        if (connects(BlockFace.SOUTH, getBlockData(user, x, y, z, BlockFace.SOUTH), pre1_12)) states |= 4;
+        if (connects(BlockFace.WEST, getBlockData(user, x, y, z, BlockFace.WEST), pre1_12)) states |= 8;
         return states;
     }
 
@@ -62,15 +66,31 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
         return STAIR_CONNECTION_HANDLER.connect(user, position, super.getBlockData(user, position));
     }
 
+    @Override
+    public int getBlockData(UserConnection user, int x, int y, int z) {
+        int blockState = super.getBlockData(user, x, y, z);
+        // Stairs connect depending on their shape
+        return StairConnectionHandler.isStair(blockState) ? STAIR_CONNECTION_HANDLER.connect(user, x, y, z, blockState) : blockState;
+    }
+
     @Override
     public int connect(UserConnection user, Position position, int blockState) {
-        final Integer newBlockState = connectedBlockStates.get(getStates(user, position, blockState));
-        return newBlockState == null ? blockState : newBlockState;
+        return connect(user, position.getX().intValue(), position.getY().intValue(), position.getZ().intValue(), blockState);
+    }
+
+    @Override
+    public int connect(UserConnection user, int x, int y, int z, int blockState) {
+        int newBlockState = connectedBlockStates[getStates(user, x, y, z, blockState)];
+        return newBlockState == -1 ? blockState : newBlockState;
     }
 
     protected boolean connects(BlockFace side, int blockState, boolean pre1_12) {
-        return blockStates.contains(blockState) || blockConnections != null
-                && ConnectionData.blockConnectionData.containsKey(blockState)
-                && ConnectionData.blockConnectionData.get(blockState).connectsTo(blockConnections, side.opposite(), pre1_12);
+        if (blockState < 0) return false;
+        if (blockStates.get(blockState)) return true;
+        if (connectingFaces == null || blockState >= connectingFaces.length) return false;
+
+        int faces = connectingFaces[blockState];
+        if (pre1_12 && (faces & BlockData.PRE_1_12_STAIR) != 0) return false; // https://minecraft.gamepedia.com/Java_Edition_1.12
+        return (faces & (1 << side.opposite().ordinal())) != 0;
     }
 }
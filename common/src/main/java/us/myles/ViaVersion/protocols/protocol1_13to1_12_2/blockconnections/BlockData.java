@@ -6,6 +6,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class BlockData {
+    /**
+     * Set in {@link #getConnectingFaces(String)} if the block doesn't connect at all for pre 1.12 servers.
+     */
+    public static final int PRE_1_12_STAIR = 1 << 6;
     private Map<String, boolean[]> connectData = new HashMap<>();
 
     public void put(String key, boolean[] booleans) {
@@ -22,4 +26,22 @@ public class BlockData {
         }
         return booleans != null && booleans[face.ordinal()];
     }
+
+    /**
+     * Get the faces a block connects to for a connection type
+     *
+     * @param blockConnection The connection type
+     * @return A bit for every face by ordinal, and {@link #PRE_1_12_STAIR}
+     */
+    public byte getConnectingFaces(String blockConnection) {
+        byte faces = 0;
+        boolean[] booleans = connectData.get(blockConnection);
+        if (booleans != null) {
+            for (BlockFace face : BlockFace.values()) {
+                if (booleans[face.ordinal()]) faces |= 1 << face.ordinal();
+            }
+        }
+        if (connectData.containsKey("allFalseIfStairPre1_12")) faces |= PRE_1_12_STAIR;
+        return faces;
+    }
 }
@@ -2,7 +2,6 @@ package us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections;
 
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.minecraft.BlockFace;
-import us.myles.ViaVersion.api.minecraft.Position;
 import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 
@@ -30,7 +29,7 @@ public class ChorusPlantConnectionHandler extends AbstractFenceConnectionHandler
             @Override
             public void check(WrappedBlockData blockData) {
                 if (blockData.getMinecraftKey().equals("minecraft:chorus_flower")) {
-                    getBlockStates().add(blockData.getSavedBlockStateId());
+                    getBlockStates().set(blockData.getSavedBlockStateId());
                 }
             }
         };
@@ -45,15 +44,15 @@ public class ChorusPlantConnectionHandler extends AbstractFenceConnectionHandler
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
-        byte states = super.getStates(user, position, blockState);
-        if (connects(BlockFace.TOP, getBlockData(user, position.getRelative(BlockFace.TOP)), false)) states |= 16;
-        if (connects(BlockFace.BOTTOM, getBlockData(user, position.getRelative(BlockFace.BOTTOM)), false)) states |= 32;
+    protected byte getStates(UserConnection user, int x, int y, int z, int blockState) {
+        byte states = super.getStates(user, x, y, z, blockState);
+        if (connects(BlockFace.TOP, getBlockData(user, x, y, z, BlockFace.TOP), false)) states |= 16;
+        if (connects(BlockFace.BOTTOM, getBlockData(user, x, y, z, BlockFace.BOTTOM), false)) states |= 32;
         return states;
     }
 
     @Override
     protected boolean connects(BlockFace side, int blockState, boolean pre1_12) {
-        return getBlockStates().contains(blockState) || (side == BlockFace.BOTTOM && blockState == endstone);
+        return blockState >= 0 && getBlockStates().get(blockState) || (side == BlockFace.BOTTOM && blockState == endstone);
     }
 }
@@ -26,6 +26,11 @@ public class ConnectionData {
     static Map<Integer, ConnectionHandler> connectionHandlerMap = new HashMap<>();
     static Map<Integer, BlockData> blockConnectionData = new HashMap<>();
     static Set<Integer> occludingStates = new HashSet<>();
+    // Flat lookups by block state, filled from the maps above once all handlers are registered
+    private static ConnectionHandler[] connectionHandlers = new ConnectionHandler[0];
+    private static BitSet welcomeStates = new BitSet();
+    private static Map<String, byte[]> connectingFaces = new HashMap<>();
+    private static int blockStateCount;
 
     public static void update(UserConnection user, Position position) {
         BlockConnectionProvider connectionProvider = Via.getManager().getProviders().get(BlockConnectionProvider.class);
@@ -40,87 +45,83 @@ public class ConnectionData {
             if (handler == null) continue;
 
             int newBlockState = handler.connect(user, pos, blockState);
-            PacketWrapper blockUpdatePacket = new PacketWrapper(0x0B, null, user);
+            PacketWrapper blockUpdatePacket = PacketWrapper.obtain(0x0B, null, user);
             blockUpdatePacket.write(Type.POSITION, pos);
             blockUpdatePacket.write(Type.VAR_INT, newBlockState);
             try {
                 blockUpdatePacket.send(Protocol1_13To1_12_2.class, true, true);
             } catch (Exception ex) {
                 ex.printStackTrace();
+            } finally {
+                blockUpdatePacket.release();
             }
         }
     }
 
     public static void updateChunkSectionNeighbours(UserConnection user, int chunkX, int chunkZ, int chunkSectionY) {
+        ConnectionUpdateBatch batch = new ConnectionUpdateBatch(user);
+        updateChunkSectionNeighbours(batch, chunkX, chunkZ, chunkSectionY);
+        batch.send();
+    }
+
+    /**
+     * Update the connections of the blocks next to all sections of a chunk, with one multi block change per neighbour column
+     *
+     * @param user  The user
+     * @param chunk The chunk which was sent
+     */
+    public static void updateChunkNeighbours(UserConnection user, Chunk chunk) {
+        ConnectionUpdateBatch batch = new ConnectionUpdateBatch(user);
+        for (int i = 0; i < chunk.getSections().length; i++) {
+            if (chunk.getSections()[i] == null) continue;
+            updateChunkSectionNeighbours(batch, chunk.getX(), chunk.getZ(), i);
+        }
+        batch.send();
+    }
+
+    private static void updateChunkSectionNeighbours(ConnectionUpdateBatch batch, int chunkX, int chunkZ, int chunkSectionY) {
         for (int chunkDeltaX = -1; chunkDeltaX <= 1; chunkDeltaX++) {
             for (int chunkDeltaZ = -1; chunkDeltaZ <= 1; chunkDeltaZ++) {
                 if (Math.abs(chunkDeltaX) + Math.abs(chunkDeltaZ) == 0) continue;
 
-                List<BlockChangeRecord> updates = new ArrayList<>();
-
+                int xOff = (chunkX + chunkDeltaX) << 4;
+                int zOff = (chunkZ + chunkDeltaZ) << 4;
+                int xStart;
+                int xEnd;
+                int zStart;
+                int zEnd;
                 if (Math.abs(chunkDeltaX) + Math.abs(chunkDeltaZ) == 2) { // Corner
-                    for (int blockY = chunkSectionY * 16; blockY < chunkSectionY * 16 + 16; blockY++) {
-                        int blockPosX = chunkDeltaX == 1 ? 0 : 15;
-                        int blockPosZ = chunkDeltaZ == 1 ? 0 : 15;
-                        updateBlock(user,
-                                new Position(
-                                        (long) ((chunkX + chunkDeltaX) << 4) + blockPosX,
-                                        (long) blockY,
-                                        (long) ((chunkZ + chunkDeltaZ) << 4) + blockPosZ
-                                ),
-                                updates
-                        );
-                    }
+                    xStart = chunkDeltaX == 1 ? 0 : 15;
+                    xEnd = xStart + 1;
+                    zStart = chunkDeltaZ == 1 ? 0 : 15;
+                    zEnd = zStart + 1;
+                } else if (chunkDeltaX == 1) {
+                    xStart = 0;
+                    xEnd = 2;
+                    zStart = 0;
+                    zEnd = 16;
+                } else if (chunkDeltaX == -1) {
+                    xStart = 14;
+                    xEnd = 16;
+                    zStart = 0;
+                    zEnd = 16;
+                } else if (chunkDeltaZ == 1) {
+                    xStart = 0;
+                    xEnd = 16;
+                    zStart = 0;
+                    zEnd = 2;
                 } else {
-                    for (int blockY = chunkSectionY * 16; blockY < chunkSectionY * 16 + 16; blockY++) {
-                        int xStart;
-                        int xEnd;
-                        int zStart;
-                        int zEnd;
-                        if (chunkDeltaX == 1) {
-                            xStart = 0;
-                            xEnd = 2;
-                            zStart = 0;
-                            zEnd = 16;
-                        } else if (chunkDeltaX == -1) {
-                            xStart = 14;
-                            xEnd = 16;
-                            zStart = 0;
-                            zEnd = 16;
-                        } else if (chunkDeltaZ == 1) {
-                            xStart = 0;
-                            xEnd = 16;
-                            zStart = 0;
-                            zEnd = 2;
-                        } else {
-                            xStart = 0;
-                            xEnd = 16;
-                            zStart = 14;
-                            zEnd = 16;
-                        }
-                        for (int blockX = xStart; blockX < xEnd; blockX++) {
-                            for (int blockZ = zStart; blockZ < zEnd; blockZ++) {
-                                updateBlock(user,
-                                        new Position(
-                                                (long) ((chunkX + chunkDeltaX) << 4) + blockX,
-                                                (long) blockY,
-                                                (long) ((chunkZ + chunkDeltaZ) << 4) + blockZ),
-                                        updates
-                                );
-                            }
-                        }
-                    }
+                    xStart = 0;
+                    xEnd = 16;
+                    zStart = 14;
+                    zEnd = 16;
                 }
 
-                if (!updates.isEmpty()) {
-                    PacketWrapper wrapper = new PacketWrapper(0x0F, null, user);
-                    wrapper.write(Type.INT, chunkX + chunkDeltaX);
-                    wrapper.write(Type.INT, chunkZ + chunkDeltaZ);
-                    wrapper.write(Type.BLOCK_CHANGE_RECORD_ARRAY, updates.toArray(new BlockChangeRecord[0]));
-                    try {
-                        wrapper.send(Protocol1_13To1_12_2.class, true, true);
-                    } catch (Exception e) {
-                        e.printStackTrace();
+                for (int blockY = chunkSectionY * 16; blockY < chunkSectionY * 16 + 16; blockY++) {
+                    for (int blockX = xStart; blockX < xEnd; blockX++) {
+                        for (int blockZ = zStart; blockZ < zEnd; blockZ++) {
+                            batch.update(xOff + blockX, blockY, zOff + blockZ);
+                        }
                     }
                 }
             }
@@ -159,8 +160,8 @@ public class ConnectionData {
     }
 
     public static void connectBlocks(UserConnection user, Chunk chunk) {
-        long xOff = chunk.getX() << 4;
-        long zOff = chunk.getZ() << 4;
+        int xOff = chunk.getX() << 4;
+        int zOff = chunk.getZ() << 4;
 
         for (int i = 0; i < chunk.getSections().length; i++) {
             ChunkSection section = chunk.getSections()[i];
@@ -177,7 +178,7 @@ public class ConnectionData {
             }
             if (!willConnect) continue;
 
-            long yOff = i << 4;
+            int yOff = i << 4;
 
             for (int y = 0; y < 16; y++) {
                 for (int z = 0; z < 16; z++) {
@@ -186,7 +187,7 @@ public class ConnectionData {
 
                         ConnectionHandler handler = ConnectionData.getConnectionHandler(block);
                         if (handler != null) {
-                            block = handler.connect(user, new Position(xOff + x, yOff + y, zOff + z), block);
+                            block = handler.connect(user, xOff + x, yOff + y, zOff + z, block);
                             section.setFlatBlock(x, y, z, block);
                         }
                     }
@@ -205,6 +206,7 @@ public class ConnectionData {
             String key = blockState.getValue().getAsString();
             idToKey.put(id, key);
             keyToId.put(key, id);
+            blockStateCount = Math.max(blockStateCount, id + 1);
         }
 
         if (!Via.getConfig().isReduceBlockStorageMemory()) {
@@ -263,26 +265,58 @@ public class ConnectionData {
             }
         }
 
+        connectionHandlers = new ConnectionHandler[blockStateCount];
+        for (Entry<Integer, ConnectionHandler> entry : connectionHandlerMap.entrySet()) {
+            connectionHandlers[entry.getKey()] = entry.getValue();
+            welcomeStates.set(entry.getKey());
+        }
+        for (Integer id : blockConnectionData.keySet()) {
+            welcomeStates.set(id);
+        }
+
         if (Via.getConfig().getBlockConnectionMethod().equalsIgnoreCase("packet")) {
             Via.getManager().getProviders().register(BlockConnectionProvider.class, new PacketBlockConnectionProvider());
         }
     }
 
     public static boolean isWelcome(int blockState) {
-        return blockConnectionData.containsKey(blockState) || connectionHandlerMap.containsKey(blockState);
+        return blockState >= 0 && welcomeStates.get(blockState);
     }
 
     public static boolean connects(int blockState) {
-        return connectionHandlerMap.containsKey(blockState);
+        return getConnectionHandler(blockState) != null;
     }
 
     public static int connect(UserConnection user, Position position, int blockState) {
-        ConnectionHandler handler = connectionHandlerMap.get(blockState);
+        ConnectionHandler handler = getConnectionHandler(blockState);
         return handler != null ? handler.connect(user, position, blockState) : blockState;
     }
 
+    public static int connect(UserConnection user, int x, int y, int z, int blockState) {
+        ConnectionHandler handler = getConnectionHandler(blockState);
+        return handler != null ? handler.connect(user, x, y, z, blockState) : blockState;
+    }
+
     public static ConnectionHandler getConnectionHandler(int blockstate) {
-        return connectionHandlerMap.get(blockstate);
+        return blockstate >= 0 && blockstate < connectionHandlers.length ? connectionHandlers[blockstate] : null;
+    }
+
+    /**
+     * Get the faces every block state connects to for a connection type
+     *
+     * @param blockConnection The connection type
+     * @return The faces from {@link BlockData#getConnectingFaces(String)} by block state
+     */
+    static byte[] getConnectingFaces(String blockConnection) {
+        byte[] faces = connectingFaces.get(blockConnection);
+        if (faces == null) {
+            faces = new byte[blockStateCount];
+            for (Entry<Integer, BlockData> entry : blockConnectionData.entrySet()) {
+                faces[entry.getKey()] = entry.getValue().getConnectingFaces(blockConnection);
+            }
+            connectingFaces.put(blockConnection, faces);
+        }
+        return faces;
     }
 
     public static int getId(String key) {
@@ -2,18 +2,41 @@ package us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections;
 
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.minecraft.BlockFace;
 import us.myles.ViaVersion.api.minecraft.Position;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.providers.BlockConnectionProvider;
 
 public abstract class ConnectionHandler {
     public abstract int connect(UserConnection user, Position position, int blockState);
 
+    /**
+     * Connect a block, handlers which only look at a few neighbours override this to not create positions
+     *
+     * @param user       The user
+     * @param x          Block X
+     * @param y          Block Y
+     * @param z          Block Z
+     * @param blockState The block state
+     * @return The connected block state
+     */
+    public int connect(UserConnection user, int x, int y, int z, int blockState) {
+        return connect(user, new Position((long) x, (long) y, (long) z), blockState);
+    }
+
     public int getBlockData(UserConnection user, Position position) {
         return Via.getManager().getProviders().get(BlockConnectionProvider.class).getBlockdata(user, position);
     }
 
+    public int getBlockData(UserConnection user, int x, int y, int z) {
+        return Via.getManager().getProviders().get(BlockConnectionProvider.class).getBlockData(user, x, y, z);
+    }
+
+    public int getBlockData(UserConnection user, int x, int y, int z, BlockFace face) {
+        return getBlockData(user, x + face.getModX(), y + face.getModY(), z + face.getModZ());
+    }
+
     public boolean canConnect(int id) {
-        ConnectionHandler handler = ConnectionData.connectionHandlerMap.get(id);
+        ConnectionHandler handler = ConnectionData.getConnectionHandler(id);
         return handler != null && handler == this;
     }
 }
@@ -0,0 +1,105 @@
+package us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import us.myles.ViaVersion.api.PacketWrapper;
+import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.minecraft.BlockChangeRecord;
+import us.myles.ViaVersion.api.minecraft.BlockFace;
+import us.myles.ViaVersion.api.type.Type;
+import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
+import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.providers.BlockConnectionProvider;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the blocks whose connections have to be updated, and sends them as one multi block change per chunk column.
+ * Every block is only resolved once, even if it's added multiple times.
+ */
+public class ConnectionUpdateBatch {
+    private final UserConnection user;
+    private final BlockConnectionProvider provider;
+    private final Map<Long, Column> columns = new LinkedHashMap<>();
+
+    public ConnectionUpdateBatch(UserConnection user) {
+        this.user = user;
+        this.provider = ConnectionData.getProvider();
+    }
+
+    /**
+     * Update the connections of a block
+     *
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     */
+    public void update(int x, int y, int z) {
+        if (y < 0 || y > 255) return;
+
+        long key = (long) (x >> 4) << 32 | (z >> 4) & 0xFFFFFFFFL;
+        Column column = columns.get(key);
+        if (column == null) {
+            columns.put(key, column = new Column(x >> 4, z >> 4));
+        }
+
+        int index = y << 8 | (x & 0xF) << 4 | (z & 0xF);
+        if (column.resolved.get(index)) return;
+        column.resolved.set(index);
+
+        int blockState = provider.getBlockData(user, x, y, z);
+        ConnectionHandler handler = ConnectionData.getConnectionHandler(blockState);
+        if (handler == null) return;
+
+        int newBlockState = handler.connect(user, x, y, z, blockState);
+        column.records.add(new BlockChangeRecord((short) ((x & 0xF) << 4 | (z & 0xF)), (short) y, newBlockState));
+    }
+
+    /**
+     * Update the connections of the blocks next to a block
+     *
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     */
+    public void updateNeighbours(int x, int y, int z) {
+        for (BlockFace face : BlockFace.values()) {
+            update(x + face.getModX(), y + face.getModY(), z + face.getModZ());
+        }
+    }
+
+    /**
+     * Send the updated blocks, a multi block change for every column with changes
+     */
+    public void send() {
+        for (Column column : columns.values()) {
+            if (column.records.isEmpty()) continue;
+
+            PacketWrapper wrapper = PacketWrapper.obtain(0x0F, null, user);
+            wrapper.write(Type.INT, column.x);
+            wrapper.write(Type.INT, column.z);
+            wrapper.write(Type.BLOCK_CHANGE_RECORD_ARRAY, column.records.toArray(new BlockChangeRecord[0]));
+            try {
+                wrapper.send(Protocol1_13To1_12_2.class, true, true);
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                wrapper.release();
+            }
+        }
+        columns.clear();
+    }
+
+    private static class Column {
+        private final int x;
+        private final int z;
+        private final BitSet resolved = new BitSet();
+        private final List<BlockChangeRecord> records = new ArrayList<>();
+
+        private Column(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+    }
+}
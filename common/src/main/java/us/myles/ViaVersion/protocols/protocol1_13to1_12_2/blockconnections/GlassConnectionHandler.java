@@ -1,7 +1,6 @@
 package us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections;
 
 import us.myles.ViaVersion.api.data.UserConnection;
-import us.myles.ViaVersion.api.minecraft.Position;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 
 import java.util.ArrayList;
@@ -37,8 +36,8 @@ public class GlassConnectionHandler extends AbstractFenceConnectionHandler {
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
-        byte states = super.getStates(user, position, blockState);
+    protected byte getStates(UserConnection user, int x, int y, int z, int blockState) {
+        byte states = super.getStates(user, x, y, z, blockState);
         return states == 0
                 && user.get(ProtocolInfo.class).getServerProtocolVersion() <= 47
                 && user.get(ProtocolInfo.class).getServerProtocolVersion() != -1 ? 0xF : states;
@@ -79,6 +79,10 @@ public class StairConnectionHandler extends ConnectionHandler {
         return s;
     }
 
+    static boolean isStair(int blockState) {
+        return stairDataMap.containsKey(blockState);
+    }
+
     @Override
     public int connect(UserConnection user, Position position, int blockState) {
         StairData stairData = stairDataMap.get(blockState);
@@ -2,7 +2,6 @@ package us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections;
 
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.minecraft.BlockFace;
-import us.myles.ViaVersion.api.minecraft.Position;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,16 +29,17 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
         return states;
     }
 
-    protected byte getStates(UserConnection user, Position position, int blockState) {
-        byte states = super.getStates(user, position, blockState);
-        if (up(user, position)) states |= 16;
+    @Override
+    protected byte getStates(UserConnection user, int x, int y, int z, int blockState) {
+        byte states = super.getStates(user, x, y, z, blockState);
+        if (up(user, x, y, z)) states |= 16;
         return states;
     }
 
-    public boolean up(UserConnection user, Position position) {
-        if (isWall(getBlockData(user, position.getRelative(BlockFace.BOTTOM))) || isWall(getBlockData(user, position.getRelative(BlockFace.TOP))))
+    public boolean up(UserConnection user, int x, int y, int z) {
+        if (isWall(getBlockData(user, x, y, z, BlockFace.BOTTOM)) || isWall(getBlockData(user, x, y, z, BlockFace.TOP)))
             return true;
-        int blockFaces = getBlockFaces(user, position);
+        int blockFaces = getBlockFaces(user, x, y, z);
         if (blockFaces == 0 || blockFaces == 0xF) return true;
         for (int i = 0; i < BLOCK_FACES.length; i++) {
             if ((blockFaces & (1 << i)) != 0 && (blockFaces & (1 << OPPOSITES[i])) == 0) return true;
@@ -47,10 +47,10 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
         return false;
     }
 
-    private int getBlockFaces(UserConnection user, Position position) {
+    private int getBlockFaces(UserConnection user, int x, int y, int z) {
         int blockFaces = 0;
         for (int i = 0; i < BLOCK_FACES.length; i++) {
-            if (isWall(getBlockData(user, position.getRelative(BLOCK_FACES[i])))) {
+            if (isWall(getBlockData(user, x, y, z, BLOCK_FACES[i]))) {
                 blockFaces |= 1 << i;
             }
         }
@@ -58,6 +58,6 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
     }
 
     private boolean isWall(int id) {
-        return getBlockStates().contains(id);
+        return id >= 0 && getBlockStates().get(id);
     }
 }
@@ -2,6 +2,7 @@ package us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.prov
 
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.minecraft.Position;
+import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
 import us.myles.ViaVersion.api.platform.providers.Provider;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.data.MappingData;
 
@@ -12,6 +13,10 @@ public class BlockConnectionProvider implements Provider {
         return MappingData.blockMappings.getNewBlock(oldId);
     }
 
+    public int getBlockData(UserConnection connection, int x, int y, int z) {
+        return getBlockdata(connection, new Position((long) x, (long) y, (long) z));
+    }
+
     public int getWorldBlockData(UserConnection connection, Position position) {
         return -1;
     }
@@ -36,6 +41,40 @@ public class BlockConnectionProvider implements Provider {
 
     }
 
+    /**
+     * Called when the server changed a block, before the connections around it are looked up
+     *
+     * @param connection The user
+     * @param x          Block X
+     * @param y          Block Y
+     * @param z          Block Z
+     * @param blockState The new 1.13 block state, without connections
+     */
+    public void blockChanged(UserConnection connection, int x, int y, int z, int blockState) {
+
+    }
+
+    /**
+     * Called before the blocks in a chunk sent by the server are connected.
+     * Until {@link #finishChunk(UserConnection, Chunk)} is called, the blocks in the chunk may be looked up from it.
+     *
+     * @param connection The user
+     * @param chunk      The chunk with 1.13 block states
+     */
+    public void startChunk(UserConnection connection, Chunk chunk) {
+
+    }
+
+    /**
+     * Called after the blocks in and around a chunk sent by the server are connected
+     *
+     * @param connection The user
+     * @param chunk      The chunk with 1.13 block states
+     */
+    public void finishChunk(UserConnection connection, Chunk chunk) {
+
+    }
+
     public boolean storesBlocks() {
         return false;
     }
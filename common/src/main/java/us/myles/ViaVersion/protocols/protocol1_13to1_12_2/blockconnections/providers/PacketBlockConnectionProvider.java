@@ -21,6 +21,11 @@ public class PacketBlockConnectionProvider extends BlockConnectionProvider {
         return connection.get(BlockConnectionStorage.class).get(position);
     }
 
+    @Override
+    public int getBlockData(UserConnection connection, int x, int y, int z) {
+        return connection.get(BlockConnectionStorage.class).get(x, y, z);
+    }
+
     @Override
     public void clearStorage(UserConnection connection) {
         connection.get(BlockConnectionStorage.class).clear();
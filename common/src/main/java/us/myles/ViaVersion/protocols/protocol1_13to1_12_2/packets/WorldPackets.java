@@ -17,6 +17,8 @@ import us.myles.ViaVersion.packets.State;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.ConnectionData;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.ConnectionHandler;
+import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.ConnectionUpdateBatch;
+import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.blockconnections.providers.BlockConnectionProvider;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.data.MappingData;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.data.NamedSoundRewriter;
 import us.myles.ViaVersion.api.type.types.Particle;
@@ -176,7 +178,7 @@ public class WorldPackets {
 
                         UserConnection userConnection = wrapper.user();
                         if (Via.getConfig().isServersideBlockConnections()) {
-
+                            ConnectionData.getProvider().blockChanged(userConnection, position.getX().intValue(), position.getY().intValue(), position.getZ().intValue(), newId);
                             ConnectionData.updateBlockStorage(userConnection, position, newId);
                             newId = ConnectionData.connect(userConnection, position, newId);
                         }
@@ -216,6 +218,7 @@ public class WorldPackets {
                                     (long) (record.getHorizontal() & 15) + (chunkZ * 16));
 
                             if (Via.getConfig().isServersideBlockConnections()) {
+                                ConnectionData.getProvider().blockChanged(userConnection, position.getX().intValue(), position.getY().intValue(), position.getZ().intValue(), newBlock);
                                 ConnectionData.updateBlockStorage(userConnection, position, newBlock);
                             }
                             record.setBlockId(checkStorage(wrapper.user(), position, newBlock));
@@ -240,13 +243,14 @@ public class WorldPackets {
                             wrapper.send(Protocol1_13To1_12_2.class, true, true);
                             wrapper.cancel();
 
+                            ConnectionUpdateBatch batch = new ConnectionUpdateBatch(userConnection);
                             for (BlockChangeRecord record : records) {
-                                Position position = new Position(
-                                        (long) (record.getHorizontal() >> 4 & 15) + (chunkX * 16),
-                                        (long) record.getY(),
-                                        (long) (record.getHorizontal() & 15) + (chunkZ * 16));
-                                ConnectionData.update(userConnection, position);
+                                batch.updateNeighbours(
+                                        (record.getHorizontal() >> 4 & 15) + (chunkX * 16),
+                                        record.getY(),
+                                        (record.getHorizontal() & 15) + (chunkZ * 16));
                             }
+                            batch.send();
                         }
 
                     }
@@ -403,14 +407,16 @@ public class WorldPackets {
                         }
 
                         if (Via.getConfig().isServersideBlockConnections()) {
-                            ConnectionData.connectBlocks(wrapper.user(), chunk);
-                            // Workaround for packet order issue
-                            wrapper.send(Protocol1_13To1_12_2.class, true, true);
-                            wrapper.cancel();
-                            for (int i = 0; i < chunk.getSections().length; i++) {
-                                ChunkSection section = chunk.getSections()[i];
-                                if (section == null) continue;
-                                ConnectionData.updateChunkSectionNeighbours(wrapper.user(), chunk.getX(), chunk.getZ(), i);
+                            BlockConnectionProvider connectionProvider = ConnectionData.getProvider();
+                            connectionProvider.startChunk(wrapper.user(), chunk);
+                            try {
+                                ConnectionData.connectBlocks(wrapper.user(), chunk);
+                                // Workaround for packet order issue
+                                wrapper.send(Protocol1_13To1_12_2.class, true, true);
+                                wrapper.cancel();
+                                ConnectionData.updateChunkNeighbours(wrapper.user(), chunk);
+                            } finally {
+                                connectionProvider.finishChunk(wrapper.user(), chunk);
                             }
                         }
                     }
@@ -1,11 +1,10 @@
 package us.myles.ViaVersion.protocols.protocol1_13to1_12_2.storage;
 
-import us.myles.ViaVersion.api.Pair;
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.data.StoredObject;
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.minecraft.Position;
-import us.myles.ViaVersion.api.minecraft.chunks.NibbleArray;
+import us.myles.ViaVersion.api.minecraft.chunks.PackedSection;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.data.MappingData;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.packets.WorldPackets;
 
@@ -15,7 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 public class BlockConnectionStorage extends StoredObject {
-    private Map<Long, Pair<byte[], NibbleArray>> blockStorage = createLongObjectMap();
+    private Map<Long, PackedSection> blockStorage = createLongObjectMap();
 
     private static Constructor<?> fastUtilLongObjectHashMap;
     private static HashMap<Short, Short> reverseBlockMappings;
@@ -42,47 +41,27 @@ public class BlockConnectionStorage extends StoredObject {
         if (mapping == null) return;
         blockState = mapping;
         long pair = getChunkSectionIndex(position);
-        Pair<byte[], NibbleArray> map = getChunkSection(pair, (blockState & 0xF) != 0);
-        int blockIndex = encodeBlockPos(position);
-        map.getKey()[blockIndex] = (byte) (blockState >> 4);
-        NibbleArray nibbleArray = map.getValue();
-        if (nibbleArray != null) nibbleArray.set(blockIndex, blockState);
+        PackedSection section = getChunkSection(pair);
+        section.set(encodeBlockPos(position), blockState);
+        if (section.isEmpty()) blockStorage.remove(pair);
     }
 
     public int get(Position position) {
-        long pair = getChunkSectionIndex(position);
-        Pair<byte[], NibbleArray> map = blockStorage.get(pair);
-        if (map == null) return 0;
-        short blockPosition = encodeBlockPos(position);
-        NibbleArray nibbleArray = map.getValue();
-        return WorldPackets.toNewId(
-                ((map.getKey()[blockPosition] & 0xFF) << 4)
-                | (nibbleArray == null ? 0 : nibbleArray.get(blockPosition))
-        );
+        return get(position.getX().intValue(), position.getY().intValue(), position.getZ().intValue());
+    }
+
+    public int get(int x, int y, int z) {
+        PackedSection section = blockStorage.get(getChunkSectionIndex(x, y, z));
+        if (section == null) return 0;
+        return WorldPackets.toNewId(section.get(encodeBlockPos(x, y, z)));
     }
 
     public void remove(Position position) {
         long pair = getChunkSectionIndex(position);
-        Pair<byte[], NibbleArray> map = blockStorage.get(pair);
-        if (map == null) return;
-        int blockIndex = encodeBlockPos(position);
-        NibbleArray nibbleArray = map.getValue();
-        if (nibbleArray != null) {
-            nibbleArray.set(blockIndex, 0);
-            boolean allZero = true;
-            for (int i = 0; i < 4096; i++) {
-                if (nibbleArray.get(i) != 0) {
-                    allZero = false;
-                    break;
-                }
-            }
-            if (allZero) map.setValue(null);
-        }
-        map.getKey()[blockIndex] = 0;
-        for (short entry : map.getKey()) {
-            if (entry != 0) return;
-        }
-        blockStorage.remove(pair);
+        PackedSection section = blockStorage.get(pair);
+        if (section == null) return;
+        section.set(encodeBlockPos(position), 0);
+        if (section.isEmpty()) blockStorage.remove(pair);
     }
 
     public void clear() {
@@ -95,16 +74,13 @@ public class BlockConnectionStorage extends StoredObject {
         }
     }
 
-    private Pair<byte[], NibbleArray> getChunkSection(long index, boolean requireNibbleArray) {
-        Pair<byte[], NibbleArray> map = blockStorage.get(index);
-        if (map == null) {
-            map = new Pair<>(new byte[4096], null);
-            blockStorage.put(index, map);
-        }
-        if (map.getValue() == null && requireNibbleArray) {
-            map.setValue(new NibbleArray(4096));
+    private PackedSection getChunkSection(long index) {
+        PackedSection section = blockStorage.get(index);
+        if (section == null) {
+            section = new PackedSection();
+            blockStorage.put(index, section);
         }
-        return map;
+        return section;
     }
 
     private long getChunkSectionIndex(int x, int y, int z) {
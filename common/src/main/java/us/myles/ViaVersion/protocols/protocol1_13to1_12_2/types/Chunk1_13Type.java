@@ -5,11 +5,14 @@ import io.netty.buffer.ByteBuf;
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.minecraft.Environment;
 import us.myles.ViaVersion.api.minecraft.chunks.BaseChunk;
+import us.myles.ViaVersion.api.minecraft.chunks.BlockStateRewriter;
 import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSectionTasks;
 import us.myles.ViaVersion.api.type.PartialType;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.api.type.types.minecraft.BaseChunkType;
+import us.myles.ViaVersion.api.type.types.version.ChunkSectionType1_13;
 import us.myles.ViaVersion.api.type.types.version.Types1_13;
 import us.myles.ViaVersion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 
@@ -43,13 +46,13 @@ public class Chunk1_13Type extends PartialType<Chunk, ClientWorld> {
         }
 
         // Read sections
-        for (int i = 0; i < 16; i++) {
-            if (!usedSections.get(i)) continue; // Section not set
-            ChunkSection section = Types1_13.CHUNK_SECTION.read(data);
-            sections[i] = section;
-            section.readBlockLight(data);
-            if (world.getEnvironment() == Environment.NORMAL) {
-                section.readSkyLight(data);
+        boolean skyLight = world.getEnvironment() == Environment.NORMAL;
+        if (ChunkSectionTasks.isParallel(usedSections.cardinality())) {
+            readSections(data, usedSections, sections, skyLight);
+        } else {
+            for (int i = 0; i < 16; i++) {
+                if (!usedSections.get(i)) continue; // Section not set
+                sections[i] = readSection(data, skyLight);
             }
         }
 
@@ -77,6 +80,35 @@ public class Chunk1_13Type extends PartialType<Chunk, ClientWorld> {
         return new BaseChunk(chunkX, chunkZ, groundUp, primaryBitmask, sections, biomeData, nbtData);
     }
 
+    private static ChunkSection readSection(ByteBuf data, boolean skyLight) throws Exception {
+        ChunkSection section = Types1_13.CHUNK_SECTION.read(data);
+        section.readBlockLight(data);
+        if (skyLight) {
+            section.readSkyLight(data);
+        }
+        return section;
+    }
+
+    private static void readSections(ByteBuf data, BitSet usedSections, final ChunkSection[] sections, final boolean skyLight) throws Exception {
+        // Find where every section starts, so they can be decoded at the same time
+        ByteBuf[] sectionData = new ByteBuf[16];
+        int lightLength = ChunkSection.LIGHT_LENGTH * (skyLight ? 2 : 1);
+        for (int i = 0; i < 16; i++) {
+            if (!usedSections.get(i)) continue; // Section not set
+            int start = data.readerIndex();
+            ChunkSectionType1_13.skip(data);
+            data.skipBytes(lightLength);
+            sectionData[i] = data.slice(start, data.readerIndex() - start);
+        }
+
+        ChunkSectionTasks.run(sectionData, new ChunkSectionTasks.Task<ByteBuf>() {
+            @Override
+            public void run(int index, ByteBuf buffer) throws Exception {
+                sections[index] = readSection(buffer, skyLight);
+            }
+        });
+    }
+
     @Override
     public void write(ByteBuf output, ClientWorld world, Chunk chunk) throws Exception {
         output.writeInt(chunk.getX());
@@ -115,6 +147,49 @@ public class Chunk1_13Type extends PartialType<Chunk, ClientWorld> {
         Type.NBT_ARRAY.write(output, chunk.getBlockEntities().toArray(new CompoundTag[0]));
     }
 
+    /**
+     * Copy a chunk and only rewrite the block states in the section palettes,
+     * the blocks of sections with a palette are not decoded.
+     *
+     * @param input    The buffer to read the chunk from
+     * @param output   The buffer to write the chunk to
+     * @param world    The world of the chunk
+     * @param rewriter The block state rewriter
+     * @throws Exception If the chunk can't be read
+     */
+    public static void rewriteBlockStates(ByteBuf input, ByteBuf output, ClientWorld world, BlockStateRewriter rewriter) throws Exception {
+        output.writeInt(input.readInt()); // Chunk X
+        output.writeInt(input.readInt()); // Chunk Z
+        output.writeBoolean(input.readBoolean()); // Ground up
+        int primaryBitmask = Type.VAR_INT_PRIMITIVE.readPrimitive(input);
+        Type.VAR_INT_PRIMITIVE.writePrimitive(output, primaryBitmask);
+        ByteBuf data = input.readSlice(Type.VAR_INT_PRIMITIVE.readPrimitive(input));
+
+        ByteBuf buf = output.alloc().buffer(data.readableBytes());
+        try {
+            for (int i = 0; i < 16; i++) {
+                if ((primaryBitmask & (1 << i)) == 0) continue; // Section not set
+                ChunkSectionType1_13.rewriteBlockStates(data, buf, rewriter);
+                buf.writeBytes(data, ChunkSection.LIGHT_LENGTH); // Block light
+                if (world.getEnvironment() == Environment.NORMAL) {
+                    buf.writeBytes(data, ChunkSection.LIGHT_LENGTH); // Sky light
+                }
+            }
+            // Biomes
+            buf.writeBytes(data);
+            Type.VAR_INT_PRIMITIVE.writePrimitive(output, buf.readableBytes());
+            output.writeBytes(buf);
+        } finally {
+            buf.release();
+        }
+
+        // Block entities are copied without the bytes following them (workaround for #681)
+        int blockEntitiesStart = input.readerIndex();
+        Type.NBT_ARRAY.read(input);
+        output.writeBytes(input, blockEntitiesStart, input.readerIndex() - blockEntitiesStart);
+        input.skipBytes(input.readableBytes());
+    }
+
     @Override
     public Class<? extends Type> getBaseClass() {
         return BaseChunkType.class;
@@ -19,12 +19,11 @@ import java.util.List;
 public class MetadataRewriter {
 
     public static void handleMetadata(int entityId, Entity1_14Types.EntityType type, List<Metadata> metadatas, UserConnection connection) {
+        EntityTracker tracker = connection.get(EntityTracker.class);
         for (Metadata metadata : new ArrayList<>(metadatas)) {
             try {
                 metadata.setMetaType(MetaType1_14.byId(metadata.getMetaType().getTypeID()));
 
-                EntityTracker tracker = connection.get(EntityTracker.class);
-
                 if (metadata.getMetaType() == MetaType1_14.Slot) {
                     InventoryPackets.toClient((Item) metadata.getValue());
                 } else if (metadata.getMetaType() == MetaType1_14.BlockID) {
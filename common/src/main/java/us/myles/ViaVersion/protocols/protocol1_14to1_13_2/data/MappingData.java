@@ -18,8 +18,8 @@ public class MappingData {
     public static BlockMappings blockStateMappings;
     public static BlockMappings blockMappings;
     public static SoundMappings soundMappings;
-    public static Set<Integer> motionBlocking;
-    public static Set<Integer> nonFullBlocks;
+    public static BitSet motionBlocking;
+    public static BitSet nonFullBlocks;
 
     public static void init() {
         JsonObject mapping1_13_2 = loadData("mapping-1.13.2.json");
@@ -44,31 +44,38 @@ public class MappingData {
         Via.getPlatform().getLogger().info("Loading 1.14 heightmap data...");
         JsonObject heightMapData = loadData("heightMapData-1.14.json");
         JsonArray motionBlocking = heightMapData.getAsJsonArray("MOTION_BLOCKING");
-        MappingData.motionBlocking = new HashSet<>(motionBlocking.size());
+        MappingData.motionBlocking = new BitSet();
         for (JsonElement blockState : motionBlocking) {
             String key = blockState.getAsString();
             Integer id = blockStateMap.get(key);
             if (id == null) {
                 Via.getPlatform().getLogger().warning("Unknown blockstate " + key + " :(");
             } else {
-                MappingData.motionBlocking.add(id);
+                MappingData.motionBlocking.set(id);
             }
         }
 
         if (Via.getConfig().isNonFullBlockLightFix()) {
-            nonFullBlocks = new HashSet<>();
+            nonFullBlocks = new BitSet();
             for (Map.Entry<String, JsonElement> blockstates : mapping1_13_2.getAsJsonObject("blockstates").entrySet()) {
                 final String state = blockstates.getValue().getAsString();
                 if (state.contains("_slab") || state.contains("_stairs") || state.contains("_wall["))
-                    nonFullBlocks.add(blockStateMappings.getNewBlock(Integer.parseInt(blockstates.getKey())));
+                    addNonFullBlock(blockStateMappings.getNewBlock(Integer.parseInt(blockstates.getKey())));
             }
-            nonFullBlocks.add(blockStateMappings.getNewBlock(8163)); // grass path
+            addNonFullBlock(blockStateMappings.getNewBlock(8163)); // grass path
             for (int i = 3060; i <= 3067; i++) { // farmland
-                nonFullBlocks.add(blockStateMappings.getNewBlock(i));
+                addNonFullBlock(blockStateMappings.getNewBlock(i));
             }
         }
     }
 
+    private static void addNonFullBlock(int id) {
+        // BitSet doesn't take the -1 of missing mappings
+        if (id != -1) {
+            nonFullBlocks.set(id);
+        }
+    }
+
     public static JsonObject loadData(String name) {
         InputStream stream = MappingData.class.getClassLoader().getResourceAsStream("assets/viaversion/data/" + name);
         InputStreamReader reader = new InputStreamReader(stream);
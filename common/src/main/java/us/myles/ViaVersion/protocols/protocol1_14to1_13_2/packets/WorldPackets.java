@@ -2,21 +2,29 @@ package us.myles.ViaVersion.protocols.protocol1_14to1_13_2.packets;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.LongArrayTag;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import us.myles.ViaVersion.api.PacketWrapper;
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.data.UserConnection;
 import us.myles.ViaVersion.api.entities.Entity1_14Types;
 import us.myles.ViaVersion.api.minecraft.BlockChangeRecord;
 import us.myles.ViaVersion.api.minecraft.BlockFace;
+import us.myles.ViaVersion.api.minecraft.Environment;
+import us.myles.ViaVersion.api.minecraft.Position;
 import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSectionTasks;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkTranslationCache;
 import us.myles.ViaVersion.api.minecraft.chunks.NibbleArray;
 import us.myles.ViaVersion.api.protocol.Protocol;
+import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.api.remapper.PacketHandler;
 import us.myles.ViaVersion.api.remapper.PacketRemapper;
 import us.myles.ViaVersion.api.remapper.ValueCreator;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.packets.State;
+import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.types.Chunk1_13Type;
 import us.myles.ViaVersion.protocols.protocol1_14to1_13_2.MetadataRewriter;
 import us.myles.ViaVersion.protocols.protocol1_14to1_13_2.Protocol1_14To1_13_2;
@@ -32,13 +40,19 @@ public class WorldPackets {
     private static final int VOID_AIR = MappingData.blockStateMappings.getNewBlock(8591);
     private static final int CAVE_AIR = MappingData.blockStateMappings.getNewBlock(8592);
     public static final int SERVERSIDE_VIEW_DISTANCE = 64;
-    private static final Byte[] FULL_LIGHT = new Byte[2048];
+    // Flags of the block states in a section palette
+    private static final byte NON_AIR = 1;
+    private static final byte MOTION_BLOCKING = 2;
+    private static final byte NON_FULL = 4;
+    private static final byte[] FULL_LIGHT = new byte[2048];
 
     static {
         Arrays.fill(FULL_LIGHT, (byte) 0xff);
     }
 
     public static void register(final Protocol protocol) {
+        int chunkCacheSize = Via.getConfig().getTranslatedChunkCacheSize();
+        final ChunkTranslationCache<TranslatedChunk> chunkCache = chunkCacheSize > 0 ? new ChunkTranslationCache<TranslatedChunk>(chunkCacheSize * 1024L * 1024L) : null;
 
         // Block Break Animation
         protocol.registerOutgoing(State.PLAY, 0x08, 0x08, new PacketRemapper() {
@@ -87,6 +101,10 @@ public class WorldPackets {
                         int id = wrapper.get(Type.VAR_INT, 0);
 
                         wrapper.set(Type.VAR_INT, 0, Protocol1_14To1_13_2.getNewBlockStateId(id));
+                        if (chunkCache != null) {
+                            Position position = wrapper.get(Type.POSITION1_14, 0);
+                            invalidateChunk(chunkCache, wrapper.user(), (int) (position.getX() >> 4), (int) (position.getZ() >> 4));
+                        }
                     }
                 });
             }
@@ -121,6 +139,9 @@ public class WorldPackets {
                             int id = record.getBlockId();
                             record.setBlockId(Protocol1_14To1_13_2.getNewBlockStateId(id));
                         }
+                        if (chunkCache != null) {
+                            invalidateChunk(chunkCache, wrapper.user(), wrapper.get(Type.INT, 0), wrapper.get(Type.INT, 1));
+                        }
                     }
                 });
             }
@@ -158,123 +179,56 @@ public class WorldPackets {
                     @Override
                     public void handle(PacketWrapper wrapper) throws Exception {
                         ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
-                        Chunk chunk = wrapper.read(new Chunk1_13Type(clientWorld));
-                        wrapper.write(new Chunk1_14Type(clientWorld), chunk);
-
-                        int[] motionBlocking = new int[16 * 16];
-                        int[] worldSurface = new int[16 * 16];
-
-                        for (int s = 0; s < 16; s++) {
-                            ChunkSection section = chunk.getSections()[s];
-                            if (section == null) continue;
-
-                            boolean hasBlock = false;
-                            for (int i = 0; i < section.getPaletteSize(); i++) {
-                                int old = section.getPaletteEntry(i);
-                                int newId = Protocol1_14To1_13_2.getNewBlockStateId(old);
-                                if (!hasBlock && newId != AIR && newId != VOID_AIR && newId != CAVE_AIR) { // air, void_air, cave_air
-                                    hasBlock = true;
-                                }
-                                section.setPaletteEntry(i, newId);
-                            }
-                            if (!hasBlock) {
-                                section.setNonAirBlocksCount(0);
-                                continue;
-                            }
-
-                            int nonAirBlockCount = 0;
-                            for (int x = 0; x < 16; x++) {
-                                for (int y = 0; y < 16; y++) {
-                                    for (int z = 0; z < 16; z++) {
-                                        int id = section.getFlatBlock(x, y, z);
-                                        if (id != AIR && id != VOID_AIR && id != CAVE_AIR) {
-                                            nonAirBlockCount++;
-                                            worldSurface[x + z * 16] = y + s * 16 + 1; // +1 (top of the block)
-                                        }
-                                        if (MappingData.motionBlocking.contains(id)) {
-                                            motionBlocking[x + z * 16] = y + s * 16 + 1; // +1 (top of the block)
-                                        }
-
-                                        // Manually update light for non full blocks (block light must not be sent)
-                                        if (Via.getConfig().isNonFullBlockLightFix() && MappingData.nonFullBlocks.contains(id)) {
-                                            setNonFullLight(chunk, section, s, x, y, z);
-                                        }
-                                    }
-                                }
-                            }
-
-                            section.setNonAirBlocksCount(nonAirBlockCount);
-                        }
-
-                        CompoundTag heightMap = new CompoundTag("");
-                        heightMap.put(new LongArrayTag("MOTION_BLOCKING", encodeHeightMap(motionBlocking)));
-                        heightMap.put(new LongArrayTag("WORLD_SURFACE", encodeHeightMap(worldSurface)));
-                        chunk.setHeightMap(heightMap);
-
-                        PacketWrapper lightPacket = wrapper.create(0x24);
-                        lightPacket.write(Type.VAR_INT, chunk.getX());
-                        lightPacket.write(Type.VAR_INT, chunk.getZ());
-
-                        int skyLightMask = chunk.isGroundUp() ? 0x3ffff : 0; // all 18 bits set if ground up
-                        int blockLightMask = 0;
-                        for (int i = 0; i < chunk.getSections().length; i++) {
-                            ChunkSection sec = chunk.getSections()[i];
-                            if (sec == null) continue;
-                            if (!chunk.isGroundUp() && sec.hasSkyLight()) {
-                                skyLightMask |= (1 << (i + 1));
+                        Environment environment = clientWorld.getEnvironment();
+                        Chunk1_13Type type = new Chunk1_13Type(clientWorld);
+                        Chunk1_14Type type1_14 = new Chunk1_14Type(clientWorld);
+                        int clientVersion = wrapper.user().get(ProtocolInfo.class).getProtocolVersion();
+
+                        TranslatedChunk translated;
+                        // Chunks can only be shared while they are encoded and no later protocol reads them as chunk
+                        if (chunkCache == null || environment == null
+                                || wrapper.isReadable(type, 0) || clientVersion >= ProtocolVersion.v1_15.getId()) {
+                            Chunk chunk = wrapper.read(type);
+                            wrapper.write(type1_14, chunk);
+                            translateChunk(chunk);
+                            translated = new TranslatedChunk(chunk.getX(), chunk.getZ(), null, writeLight(chunk));
+                        } else {
+                            byte[] input = wrapper.read(Type.REMAINING_BYTES);
+                            ByteBuf inputBuffer = Unpooled.wrappedBuffer(input);
+                            int chunkX = inputBuffer.getInt(0);
+                            int chunkZ = inputBuffer.getInt(4);
+                            translated = chunkCache.get(environment, chunkX, chunkZ, input);
+                            if (translated == null) {
+                                Chunk chunk = type.read(inputBuffer);
+                                translateChunk(chunk);
+                                ByteBuf output = Unpooled.buffer(input.length);
+                                type1_14.write(output, chunk);
+                                translated = new TranslatedChunk(chunkX, chunkZ, toArray(output), writeLight(chunk));
+                                chunkCache.put(environment, chunkX, chunkZ, input, translated, translated.chunk.length + translated.light.length);
                             }
-                            blockLightMask |= (1 << (i + 1));
-                        }
-
-                        lightPacket.write(Type.VAR_INT, skyLightMask);
-                        lightPacket.write(Type.VAR_INT, blockLightMask);
-                        lightPacket.write(Type.VAR_INT, 0);  // empty sky light mask
-                        lightPacket.write(Type.VAR_INT, 0);  // empty block light mask
-
-                        // not sending skylight/setting empty skylight causes client lag due to some weird calculations
-                        // only do this on the initial chunk send (not when chunk.isGroundUp() is false)
-                        if (chunk.isGroundUp())
-                            lightPacket.write(Type.BYTE_ARRAY, FULL_LIGHT); // chunk below 0
-                        for (ChunkSection section : chunk.getSections()) {
-                            if (section == null || !section.hasSkyLight()) {
-                                if (chunk.isGroundUp()) {
-                                    lightPacket.write(Type.BYTE_ARRAY, FULL_LIGHT);
-                                }
-                                continue;
-                            }
-                            lightPacket.write(Type.BYTE_ARRAY, fromPrimitiveArray(section.getSkyLight()));
-                        }
-                        if (chunk.isGroundUp())
-                            lightPacket.write(Type.BYTE_ARRAY, FULL_LIGHT); // chunk above 255
-
-                        for (ChunkSection section : chunk.getSections()) {
-                            if (section == null) continue;
-                            lightPacket.write(Type.BYTE_ARRAY, fromPrimitiveArray(section.getBlockLight()));
+                            wrapper.write(Type.REMAINING_BYTES, translated.chunk);
                         }
 
                         EntityTracker entityTracker = wrapper.user().get(EntityTracker.class);
-                        int diffX = Math.abs(entityTracker.getChunkCenterX() - chunk.getX());
-                        int diffZ = Math.abs(entityTracker.getChunkCenterZ() - chunk.getZ());
+                        int diffX = Math.abs(entityTracker.getChunkCenterX() - translated.x);
+                        int diffZ = Math.abs(entityTracker.getChunkCenterZ() - translated.z);
                         if (entityTracker.isForceSendCenterChunk()
                                 || diffX >= SERVERSIDE_VIEW_DISTANCE
                                 || diffZ >= SERVERSIDE_VIEW_DISTANCE) {
                             PacketWrapper fakePosLook = wrapper.create(0x40); // Set center chunk
-                            fakePosLook.write(Type.VAR_INT, chunk.getX());
-                            fakePosLook.write(Type.VAR_INT, chunk.getZ());
+                            fakePosLook.write(Type.VAR_INT, translated.x);
+                            fakePosLook.write(Type.VAR_INT, translated.z);
                             fakePosLook.send(Protocol1_14To1_13_2.class, true, true);
-                            entityTracker.setChunkCenterX(chunk.getX());
-                            entityTracker.setChunkCenterZ(chunk.getZ());
+                            entityTracker.setChunkCenterX(translated.x);
+                            entityTracker.setChunkCenterZ(translated.z);
                         }
 
-                        lightPacket.send(Protocol1_14To1_13_2.class, true, true);
-                    }
-
-                    private Byte[] fromPrimitiveArray(byte[] bytes) {
-                        Byte[] newArray = new Byte[bytes.length];
-                        for (int i = 0; i < bytes.length; i++) {
-                            newArray[i] = bytes[i];
+                        PacketWrapper lightPacket = PacketWrapper.obtain(0x24, Unpooled.wrappedBuffer(translated.light), wrapper.user());
+                        try {
+                            lightPacket.send(Protocol1_14To1_13_2.class, true, true);
+                        } finally {
+                            lightPacket.release();
                         }
-                        return newArray;
                     }
                 });
             }
@@ -457,6 +411,175 @@ public class WorldPackets {
         return data;
     }
 
+    private static void translateChunk(Chunk chunk) throws Exception {
+        final boolean nonFullBlockLightFix = Via.getConfig().isNonFullBlockLightFix() && MappingData.nonFullBlocks != null;
+        final byte[][] sectionFlags = new byte[16][];
+        final byte[] sectionAllFlags = new byte[16];
+        ChunkSectionTasks.run(chunk.getSections(), new ChunkSectionTasks.Task<ChunkSection>() {
+            @Override
+            public void run(int s, ChunkSection section) {
+                // Classify every palette entry once instead of every block
+                byte[] flags = new byte[section.getPaletteSize()];
+                byte allFlags = 0;
+                for (int i = 0; i < flags.length; i++) {
+                    int newId = Protocol1_14To1_13_2.getNewBlockStateId(section.getPaletteEntry(i));
+                    section.setPaletteEntry(i, newId);
+                    flags[i] = getBlockFlags(newId, nonFullBlockLightFix);
+                    allFlags |= flags[i];
+                }
+                if ((allFlags & NON_AIR) == 0) {
+                    section.setNonAirBlocksCount(0);
+                    return;
+                }
+                sectionFlags[s] = flags;
+                sectionAllFlags[s] = allFlags;
+
+                int[] paletteCounts = new int[flags.length];
+                for (int i = 0; i < ChunkSection.SIZE; i++) {
+                    paletteCounts[section.getPaletteIndex(i)]++;
+                }
+                int nonAirBlockCount = 0;
+                for (int i = 0; i < flags.length; i++) {
+                    if ((flags[i] & NON_AIR) != 0) {
+                        nonAirBlockCount += paletteCounts[i];
+                    }
+                }
+                section.setNonAirBlocksCount(nonAirBlockCount);
+            }
+        });
+
+        // Manually update light for non full blocks (block light must not be sent)
+        // This changes the light of neighbour sections, so it's done after all sections are translated
+        for (int s = 0; s < 16; s++) {
+            if ((sectionAllFlags[s] & NON_FULL) == 0) continue;
+            ChunkSection section = chunk.getSections()[s];
+            byte[] flags = sectionFlags[s];
+            for (int x = 0; x < 16; x++) {
+                for (int y = 0; y < 16; y++) {
+                    for (int z = 0; z < 16; z++) {
+                        if ((flags[section.getPaletteIndex(ChunkSection.index(x, y, z))] & NON_FULL) != 0) {
+                            setNonFullLight(chunk, section, s, x, y, z);
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] motionBlocking = new int[16 * 16];
+        int[] worldSurface = new int[16 * 16];
+        calculateHeightMaps(chunk, sectionFlags, motionBlocking, worldSurface);
+
+        CompoundTag heightMap = new CompoundTag("");
+        heightMap.put(new LongArrayTag("MOTION_BLOCKING", encodeHeightMap(motionBlocking)));
+        heightMap.put(new LongArrayTag("WORLD_SURFACE", encodeHeightMap(worldSurface)));
+        chunk.setHeightMap(heightMap);
+    }
+
+    private static byte[] writeLight(Chunk chunk) throws Exception {
+        ByteBuf buffer = Unpooled.buffer();
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, chunk.getX());
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, chunk.getZ());
+
+        int skyLightMask = chunk.isGroundUp() ? 0x3ffff : 0; // all 18 bits set if ground up
+        int blockLightMask = 0;
+        for (int i = 0; i < chunk.getSections().length; i++) {
+            ChunkSection sec = chunk.getSections()[i];
+            if (sec == null) continue;
+            if (!chunk.isGroundUp() && sec.hasSkyLight()) {
+                skyLightMask |= (1 << (i + 1));
+            }
+            blockLightMask |= (1 << (i + 1));
+        }
+
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, skyLightMask);
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, blockLightMask);
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, 0);  // empty sky light mask
+        Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, 0);  // empty block light mask
+
+        // not sending skylight/setting empty skylight causes client lag due to some weird calculations
+        // only do this on the initial chunk send (not when chunk.isGroundUp() is false)
+        if (chunk.isGroundUp())
+            Type.BYTE_ARRAY_PRIMITIVE.write(buffer, FULL_LIGHT); // chunk below 0
+        for (ChunkSection section : chunk.getSections()) {
+            if (section == null || !section.hasSkyLight()) {
+                if (chunk.isGroundUp()) {
+                    Type.BYTE_ARRAY_PRIMITIVE.write(buffer, FULL_LIGHT);
+                }
+                continue;
+            }
+            Type.BYTE_ARRAY_PRIMITIVE.write(buffer, section.getSkyLight());
+        }
+        if (chunk.isGroundUp())
+            Type.BYTE_ARRAY_PRIMITIVE.write(buffer, FULL_LIGHT); // chunk above 255
+
+        for (ChunkSection section : chunk.getSections()) {
+            if (section == null) continue;
+            Type.BYTE_ARRAY_PRIMITIVE.write(buffer, section.getBlockLight());
+        }
+        return toArray(buffer);
+    }
+
+    private static void invalidateChunk(ChunkTranslationCache<TranslatedChunk> chunkCache, UserConnection user, int chunkX, int chunkZ) {
+        // Changed chunks wouldn't match anymore, this only frees the memory early
+        Environment environment = user.get(ClientWorld.class).getEnvironment();
+        if (environment != null) {
+            chunkCache.invalidate(environment, chunkX, chunkZ);
+        }
+    }
+
+    private static byte[] toArray(ByteBuf buffer) {
+        byte[] array = new byte[buffer.readableBytes()];
+        buffer.readBytes(array);
+        return array;
+    }
+
+    private static byte getBlockFlags(int id, boolean nonFullBlockLightFix) {
+        byte flags = 0;
+        if (id != AIR && id != VOID_AIR && id != CAVE_AIR) {
+            flags |= NON_AIR;
+        }
+        if (MappingData.motionBlocking.get(id)) {
+            flags |= MOTION_BLOCKING;
+        }
+        if (nonFullBlockLightFix && MappingData.nonFullBlocks.get(id)) {
+            flags |= NON_FULL;
+        }
+        return flags;
+    }
+
+    private static void calculateHeightMaps(Chunk chunk, byte[][] sectionFlags, int[] motionBlocking, int[] worldSurface) {
+        // Scan every column from the top down until both heights are found
+        int missingColumns = 16 * 16;
+        for (int s = 15; s >= 0 && missingColumns > 0; s--) {
+            byte[] flags = sectionFlags[s];
+            if (flags == null) continue;
+
+            ChunkSection section = chunk.getSections()[s];
+            for (int column = 0; column < 16 * 16; column++) {
+                boolean findWorldSurface = worldSurface[column] == 0;
+                boolean findMotionBlocking = motionBlocking[column] == 0;
+                if (!findWorldSurface && !findMotionBlocking) continue;
+
+                // Column is x + z * 16, like the block index without y
+                for (int y = 15; y >= 0; y--) {
+                    int blockFlags = flags[section.getPaletteIndex(y << 8 | column)];
+                    if (findWorldSurface && (blockFlags & NON_AIR) != 0) {
+                        worldSurface[column] = y + s * 16 + 1; // +1 (top of the block)
+                        findWorldSurface = false;
+                    }
+                    if (findMotionBlocking && (blockFlags & MOTION_BLOCKING) != 0) {
+                        motionBlocking[column] = y + s * 16 + 1; // +1 (top of the block)
+                        findMotionBlocking = false;
+                    }
+                    if (!findWorldSurface && !findMotionBlocking) {
+                        missingColumns--;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
     private static void setNonFullLight(Chunk chunk, ChunkSection section, int ySection, int x, int y, int z) {
         int skyLight = 0;
         int blockLight = 0;
@@ -533,4 +656,20 @@ public class WorldPackets {
     private static long getChunkIndex(int x, int z) {
         return ((x & 0x3FFFFFFL) << 38) | (z & 0x3FFFFFFL);
     }
+
+    private static class TranslatedChunk {
+        private final int x;
+        private final int z;
+        // Encoded chunk, null if the chunk isn't cached
+        private final byte[] chunk;
+        // Encoded light packet without id
+        private final byte[] light;
+
+        TranslatedChunk(int x, int z, byte[] chunk, byte[] light) {
+            this.x = x;
+            this.z = z;
+            this.chunk = chunk;
+            this.light = light;
+        }
+    }
 }
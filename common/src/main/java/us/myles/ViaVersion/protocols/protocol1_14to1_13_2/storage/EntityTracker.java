@@ -11,16 +11,10 @@ import us.myles.ViaVersion.api.entities.Entity1_14Types;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.protocols.protocol1_14to1_13_2.Protocol1_14To1_13_2;
 import us.myles.ViaVersion.protocols.protocol1_14to1_13_2.packets.WorldPackets;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import us.myles.ViaVersion.util.IntObjectMap;
 
 public class EntityTracker extends StoredObject implements ExternalJoinGameListener {
-    private final Map<Integer, Entity1_14Types.EntityType> clientEntityTypes = new ConcurrentHashMap<>();
-    private final Map<Integer, Byte> insentientData = new ConcurrentHashMap<>();
-    // 0x1 = sleeping, 0x2 = riptide
-    private final Map<Integer, Byte> sleepingAndRiptideData = new ConcurrentHashMap<>();
-    private final Map<Integer, Byte> playerEntityFlags = new ConcurrentHashMap<>();
+    private final IntObjectMap<TrackedEntity> entities = new IntObjectMap<>();
     @Getter
     @Setter
     private int latestTradeWindowId;
@@ -39,68 +33,80 @@ public class EntityTracker extends StoredObject implements ExternalJoinGameListe
     }
 
     public void removeEntity(int entityId) {
-        clientEntityTypes.remove(entityId);
-        insentientData.remove(entityId);
-        sleepingAndRiptideData.remove(entityId);
-        playerEntityFlags.remove(entityId);
+        entities.remove(entityId);
+    }
+
+    public void removeEntities(Integer[] entityIds) {
+        entities.removeAll(entityIds);
     }
 
     public void addEntity(int entityId, Entity1_14Types.EntityType type) {
-        clientEntityTypes.put(entityId, type);
+        getOrCreate(entityId).type = type;
     }
 
     public byte getInsentientData(int entity) {
-        Byte val = insentientData.get(entity);
-        return val == null ? 0 : val;
+        TrackedEntity trackedEntity = entities.get(entity);
+        return trackedEntity == null ? 0 : trackedEntity.insentientData;
     }
 
     public void setInsentientData(int entity, byte value) {
-        insentientData.put(entity, value);
-    }
-
-    private static byte zeroIfNull(Byte val) {
-        if (val == null) return 0;
-        return val;
+        getOrCreate(entity).insentientData = value;
     }
 
     public boolean isSleeping(int player) {
-        return (zeroIfNull(sleepingAndRiptideData.get(player)) & 1) != 0;
+        return (getSleepingAndRiptideData(player) & 1) != 0;
     }
 
     public void setSleeping(int player, boolean value) {
-        byte newValue = (byte) ((zeroIfNull(sleepingAndRiptideData.get(player)) & ~1) | (value ? 1 : 0));
-        if (newValue == 0) {
-            sleepingAndRiptideData.remove(player);
-        } else {
-            sleepingAndRiptideData.put(player, newValue);
-        }
+        byte newValue = (byte) ((getSleepingAndRiptideData(player) & ~1) | (value ? 1 : 0));
+        setSleepingAndRiptideData(player, newValue);
     }
 
     public boolean isRiptide(int player) {
-        return (zeroIfNull(sleepingAndRiptideData.get(player)) & 2) != 0;
+        return (getSleepingAndRiptideData(player) & 2) != 0;
     }
 
     public void setRiptide(int player, boolean value) {
-        byte newValue = (byte) ((zeroIfNull(sleepingAndRiptideData.get(player)) & ~2) | (value ? 2 : 0));
-        if (newValue == 0) {
-            sleepingAndRiptideData.remove(player);
-        } else {
-            sleepingAndRiptideData.put(player, newValue);
+        byte newValue = (byte) ((getSleepingAndRiptideData(player) & ~2) | (value ? 2 : 0));
+        setSleepingAndRiptideData(player, newValue);
+    }
+
+    private byte getSleepingAndRiptideData(int player) {
+        TrackedEntity entity = entities.get(player);
+        return entity == null ? 0 : entity.sleepingAndRiptideData;
+    }
+
+    private void setSleepingAndRiptideData(int player, byte value) {
+        TrackedEntity entity = entities.get(player);
+        if (entity == null) {
+            if (value == 0) return;
+            entity = getOrCreate(player);
         }
+        entity.sleepingAndRiptideData = value;
     }
 
     public boolean has(int entityId) {
-        return clientEntityTypes.containsKey(entityId);
+        TrackedEntity entity = entities.get(entityId);
+        return entity != null && entity.type != null;
     }
 
     public Optional<Entity1_14Types.EntityType> get(int id) {
-        return Optional.fromNullable(clientEntityTypes.get(id));
+        TrackedEntity entity = entities.get(id);
+        return Optional.fromNullable(entity == null ? null : entity.type);
+    }
+
+    private TrackedEntity getOrCreate(int entityId) {
+        TrackedEntity entity = entities.get(entityId);
+        if (entity == null) {
+            entities.put(entityId, entity = new TrackedEntity());
+        }
+        return entity;
     }
 
     @Override
     public void onExternalJoinGame(int playerEntityId) {
         clientEntityId = playerEntityId;
-        clientEntityTypes.put(playerEntityId, Entity1_14Types.EntityType.PLAYER);
+        addEntity(playerEntityId, Entity1_14Types.EntityType.PLAYER);
         PacketWrapper setViewDistance = new PacketWrapper(0x41, null, getUser());
         setViewDistance.write(Type.VAR_INT, WorldPackets.SERVERSIDE_VIEW_DISTANCE);
         try {
@@ -111,10 +117,19 @@ public class EntityTracker extends StoredObject implements ExternalJoinGameListe
     }
 
     public byte getEntityFlags(int player) {
-        return zeroIfNull(playerEntityFlags.get(player));
+        TrackedEntity entity = entities.get(player);
+        return entity == null ? 0 : entity.entityFlags;
     }
 
     public void setEntityFlags(int player, byte data) {
-        playerEntityFlags.put(player, data);
+        getOrCreate(player).entityFlags = data;
+    }
+
+    private static class TrackedEntity {
+        private Entity1_14Types.EntityType type;
+        private byte insentientData;
+        // 0x1 = sleeping, 0x2 = riptide
+        private byte sleepingAndRiptideData;
+        private byte entityFlags;
     }
 }
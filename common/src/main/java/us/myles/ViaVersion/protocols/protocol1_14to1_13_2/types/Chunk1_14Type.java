@@ -2,10 +2,12 @@ package us.myles.ViaVersion.protocols.protocol1_14to1_13_2.types;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.minecraft.chunks.BaseChunk;
 import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSectionTasks;
 import us.myles.ViaVersion.api.type.PartialType;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.api.type.types.minecraft.BaseChunkType;
@@ -82,12 +84,7 @@ public class Chunk1_14Type extends PartialType<Chunk, ClientWorld> {
 
         ByteBuf buf = output.alloc().buffer();
         try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-                buf.writeShort(section.getNonAirBlocksCount());
-                Types1_13.CHUNK_SECTION.write(buf, section);
-            }
+            writeSections(buf, chunk);
             buf.readerIndex(0);
             Type.VAR_INT.write(output, buf.readableBytes() + (chunk.isBiomeData() ? 256 * 4 : 0));
             output.writeBytes(buf);
@@ -106,6 +103,45 @@ public class Chunk1_14Type extends PartialType<Chunk, ClientWorld> {
         Type.NBT_ARRAY.write(output, chunk.getBlockEntities().toArray(new CompoundTag[0]));
     }
 
+    /**
+     * Write the sections of a chunk with their non-air block counts
+     *
+     * @param buf   The buffer to write the sections to
+     * @param chunk The chunk
+     * @throws Exception If a section can't be written
+     */
+    public static void writeSections(ByteBuf buf, Chunk chunk) throws Exception {
+        if (!ChunkSectionTasks.isParallel(Integer.bitCount(chunk.getBitmask()))) {
+            for (int i = 0; i < 16; i++) {
+                ChunkSection section = chunk.getSections()[i];
+                if (section == null) continue; // Section not set
+                writeSection(buf, section);
+            }
+            return;
+        }
+
+        // Encode every section into its own buffer, then put them together in order
+        final ByteBuf[] sectionData = new ByteBuf[16];
+        ChunkSectionTasks.run(chunk.getSections(), new ChunkSectionTasks.Task<ChunkSection>() {
+            @Override
+            public void run(int index, ChunkSection section) throws Exception {
+                ByteBuf data = Unpooled.buffer();
+                writeSection(data, section);
+                sectionData[index] = data;
+            }
+        });
+        for (ByteBuf data : sectionData) {
+            if (data != null) {
+                buf.writeBytes(data);
+            }
+        }
+    }
+
+    private static void writeSection(ByteBuf buf, ChunkSection section) throws Exception {
+        buf.writeShort(section.getNonAirBlocksCount());
+        Types1_13.CHUNK_SECTION.write(buf, section);
+    }
+
     @Override
     public Class<? extends Type> getBaseClass() {
         return BaseChunkType.class;
@@ -150,10 +150,7 @@ public class EntityPackets {
                 handler(new PacketHandler() {
                     @Override
                     public void handle(PacketWrapper wrapper) throws Exception {
-                        EntityTracker entityTracker = wrapper.user().get(EntityTracker.class);
-                        for (int entity : wrapper.get(Type.VAR_INT_ARRAY, 0)) {
-                            entityTracker.removeEntity(entity);
-                        }
+                        wrapper.user().get(EntityTracker.class).removeEntities(wrapper.get(Type.VAR_INT_ARRAY, 0));
                     }
                 });
             }
@@ -10,6 +10,7 @@ import us.myles.ViaVersion.api.type.PartialType;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.api.type.types.minecraft.BaseChunkType;
 import us.myles.ViaVersion.api.type.types.version.Types1_13;
+import us.myles.ViaVersion.protocols.protocol1_14to1_13_2.types.Chunk1_14Type;
 import us.myles.ViaVersion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 
 import java.util.ArrayList;
@@ -90,12 +91,7 @@ public class Chunk1_15Type extends PartialType<Chunk, ClientWorld> {
 
         ByteBuf buf = output.alloc().buffer();
         try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-                buf.writeShort(section.getNonAirBlocksCount());
-                Types1_13.CHUNK_SECTION.write(buf, section);
-            }
+            Chunk1_14Type.writeSections(buf, chunk);
             buf.readerIndex(0);
             Type.VAR_INT.write(output, buf.readableBytes());
             output.writeBytes(buf);
@@ -2,20 +2,25 @@ package us.myles.ViaVersion.protocols.protocol1_9_1_2to1_9_3_4.types;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.minecraft.Environment;
 import us.myles.ViaVersion.api.minecraft.chunks.BaseChunk;
 import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
 import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.minecraft.chunks.LazyChunk;
 import us.myles.ViaVersion.api.type.PartialType;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.api.type.types.minecraft.BaseChunkType;
+import us.myles.ViaVersion.api.type.types.version.ChunkSectionType1_9;
 import us.myles.ViaVersion.api.type.types.version.Types1_9;
+import us.myles.ViaVersion.protocols.base.ProtocolInfo;
+import us.myles.ViaVersion.protocols.protocol1_12to1_11_1.Protocol1_12To1_11_1;
+import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import us.myles.ViaVersion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.BitSet;
 import java.util.List;
 
 public class Chunk1_9_3_4Type extends PartialType<Chunk, ClientWorld> {
@@ -33,23 +38,22 @@ public class Chunk1_9_3_4Type extends PartialType<Chunk, ClientWorld> {
         int primaryBitmask = Type.VAR_INT.read(input);
         Type.VAR_INT.read(input);
 
-        BitSet usedSections = new BitSet(16);
-        ChunkSection[] sections = new ChunkSection[16];
-        // Calculate section count from bitmask
-        for (int i = 0; i < 16; i++) {
-            if ((primaryBitmask & (1 << i)) != 0) {
-                usedSections.set(i);
-            }
-        }
-
-        // Read sections
-        for (int i = 0; i < 16; i++) {
-            if (!usedSections.get(i)) continue; // Section not set
-            ChunkSection section = Types1_9.CHUNK_SECTION.read(input);
-            sections[i] = section;
-            section.readBlockLight(input);
-            if (world.getEnvironment() == Environment.NORMAL) {
-                section.readSkyLight(input);
+        boolean skyLight = world.getEnvironment() == Environment.NORMAL;
+        boolean lazy = !decodesAllSections(world);
+        ChunkSection[] sections = null;
+        ByteBuf[] rawSections = null;
+        if (lazy) {
+            rawSections = readRawSections(input, primaryBitmask, skyLight);
+        } else {
+            sections = new ChunkSection[16];
+            for (int i = 0; i < 16; i++) {
+                if ((primaryBitmask & (1 << i)) == 0) continue; // Section not set
+                ChunkSection section = Types1_9.CHUNK_SECTION.read(input);
+                sections[i] = section;
+                section.readBlockLight(input);
+                if (skyLight) {
+                    section.readSkyLight(input);
+                }
             }
         }
 
@@ -70,9 +74,52 @@ public class Chunk1_9_3_4Type extends PartialType<Chunk, ClientWorld> {
             }
         }
 
+        if (lazy) {
+            return new LazyChunk(chunkX, chunkZ, groundUp, primaryBitmask, rawSections, Types1_9.CHUNK_SECTION, skyLight, biomeData, nbtData);
+        }
         return new BaseChunk(chunkX, chunkZ, groundUp, primaryBitmask, sections, biomeData, nbtData);
     }
 
+    /**
+     * Check if the protocols of the user decode every section of the chunk anyway,
+     * in which case finding and copying the sections for a {@link LazyChunk} would be wasted.
+     *
+     * @param world The world of the user
+     * @return True if the sections should be decoded right away
+     */
+    private static boolean decodesAllSections(ClientWorld world) {
+        if (world.getUser() == null) return false;
+        ProtocolInfo info = world.getUser().get(ProtocolInfo.class);
+        if (info == null || info.getPipeline() == null) return false;
+        // The bed block entities of 1.12 and the block state conversion of 1.13 go through all blocks
+        return info.getPipeline().contains(Protocol1_12To1_11_1.class) || info.getPipeline().contains(Protocol1_13To1_12_2.class);
+    }
+
+    private static ByteBuf[] readRawSections(ByteBuf input, int primaryBitmask, boolean skyLight) {
+        // Find the sections, they're only decoded when they are used
+        int lightLength = ChunkSection.LIGHT_LENGTH * (skyLight ? 2 : 1);
+        int start = input.readerIndex();
+        int[] sectionEnds = new int[16];
+        for (int i = 0; i < 16; i++) {
+            if ((primaryBitmask & (1 << i)) == 0) continue; // Section not set
+            ChunkSectionType1_9.skip(input);
+            input.skipBytes(lightLength);
+            sectionEnds[i] = input.readerIndex() - start;
+        }
+
+        // Copy them, so they don't depend on the packet buffer
+        byte[] sectionData = new byte[input.readerIndex() - start];
+        input.getBytes(start, sectionData);
+        ByteBuf[] rawSections = new ByteBuf[16];
+        int sectionStart = 0;
+        for (int i = 0; i < 16; i++) {
+            if ((primaryBitmask & (1 << i)) == 0) continue;
+            rawSections[i] = Unpooled.wrappedBuffer(sectionData, sectionStart, sectionEnds[i] - sectionStart);
+            sectionStart = sectionEnds[i];
+        }
+        return rawSections;
+    }
+
     @Override
     public void write(ByteBuf output, ClientWorld world, Chunk chunk) throws Exception {
         output.writeInt(chunk.getX());
@@ -83,16 +130,7 @@ public class Chunk1_9_3_4Type extends PartialType<Chunk, ClientWorld> {
 
         ByteBuf buf = output.alloc().buffer();
         try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-                Types1_9.CHUNK_SECTION.write(buf, section);
-                section.writeBlockLight(buf);
-
-                if (!section.hasSkyLight()) continue; // No sky light, we're done here.
-                section.writeSkyLight(buf);
-
-            }
+            writeSections(buf, chunk);
             buf.readerIndex(0);
             Type.VAR_INT.write(output, buf.readableBytes() + (chunk.isBiomeData() ? 256 : 0));
             output.writeBytes(buf);
@@ -111,6 +149,36 @@ public class Chunk1_9_3_4Type extends PartialType<Chunk, ClientWorld> {
         Type.NBT_ARRAY.write(output, chunk.getBlockEntities().toArray(new CompoundTag[0]));
     }
 
+    /**
+     * Write the sections of a chunk with their light, sections of a {@link LazyChunk} which weren't decoded are copied
+     *
+     * @param buf   The buffer to write the sections to
+     * @param chunk The chunk
+     * @throws Exception If a section can't be written
+     */
+    public static void writeSections(ByteBuf buf, Chunk chunk) throws Exception {
+        LazyChunk lazyChunk = chunk instanceof LazyChunk ? (LazyChunk) chunk : null;
+        for (int i = 0; i < 16; i++) {
+            ChunkSection section;
+            if (lazyChunk != null) {
+                ByteBuf raw = lazyChunk.getRawSection(i, Types1_9.CHUNK_SECTION);
+                if (raw != null) {
+                    buf.writeBytes(raw);
+                    continue;
+                }
+                section = lazyChunk.getSection(i);
+            } else {
+                section = chunk.getSections()[i];
+            }
+            if (section == null) continue; // Section not set
+            Types1_9.CHUNK_SECTION.write(buf, section);
+            section.writeBlockLight(buf);
+
+            if (!section.hasSkyLight()) continue; // No sky light, we're done here.
+            section.writeSkyLight(buf);
+        }
+    }
+
     @Override
     public Class<? extends Type> getBaseClass() {
         return BaseChunkType.class;
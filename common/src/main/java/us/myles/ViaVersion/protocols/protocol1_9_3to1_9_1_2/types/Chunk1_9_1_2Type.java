@@ -13,6 +13,7 @@ import us.myles.ViaVersion.api.type.types.minecraft.BaseChunkType;
 import us.myles.ViaVersion.api.type.types.version.Types1_9;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 import us.myles.ViaVersion.protocols.protocol1_10to1_9_3.Protocol1_10To1_9_3_4;
+import us.myles.ViaVersion.protocols.protocol1_9_1_2to1_9_3_4.types.Chunk1_9_3_4Type;
 import us.myles.ViaVersion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
 
 import java.util.ArrayList;
@@ -79,16 +80,7 @@ public class Chunk1_9_1_2Type extends PartialType<Chunk, ClientWorld> {
 
         ByteBuf buf = output.alloc().buffer();
         try {
-            for (int i = 0; i < 16; i++) {
-                ChunkSection section = chunk.getSections()[i];
-                if (section == null) continue; // Section not set
-                Types1_9.CHUNK_SECTION.write(buf, section);
-                section.writeBlockLight(buf);
-
-                if (!section.hasSkyLight()) continue; // No sky light, we're done here.
-                section.writeSkyLight(buf);
-
-            }
+            Chunk1_9_3_4Type.writeSections(buf, chunk);
             buf.readerIndex(0);
             Type.VAR_INT.write(output, buf.readableBytes() + (chunk.isBiomeData() ? 256 : 0));
             output.writeBytes(buf);
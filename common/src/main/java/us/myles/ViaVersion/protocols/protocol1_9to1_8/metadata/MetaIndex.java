@@ -143,10 +143,23 @@ public enum MetaIndex {
     ENDERDRAGON_PHASE(ENDER_DRAGON, 11, MetaType1_8.Byte, MetaType1_9.VarInt);
 
     private static final HashMap<Pair<Entity1_10Types.EntityType, Integer>, MetaIndex> metadataRewrites = new HashMap<>();
+    // The index to use for every entity type and old metadata index, with the indexes of the parent types resolved
+    private static final MetaIndex[][] indexesByType;
 
     static {
-        for (MetaIndex index : MetaIndex.values())
+        int maxIndex = 0;
+        for (MetaIndex index : MetaIndex.values()) {
             metadataRewrites.put(new Pair<>(index.getClazz(), index.getIndex()), index);
+            maxIndex = Math.max(maxIndex, index.getIndex());
+        }
+
+        Entity1_10Types.EntityType[] types = Entity1_10Types.EntityType.values();
+        indexesByType = new MetaIndex[types.length][maxIndex + 1];
+        for (Entity1_10Types.EntityType type : types) {
+            for (int i = 0; i <= maxIndex; i++) {
+                indexesByType[type.ordinal()][i] = findIndex(type, i);
+            }
+        }
     }
 
     private Entity1_10Types.EntityType clazz;
@@ -177,6 +190,12 @@ public enum MetaIndex {
     }
 
     public static MetaIndex searchIndex(Entity1_10Types.EntityType type, int index) {
+        if (type == null) return null;
+        MetaIndex[] indexes = indexesByType[type.ordinal()];
+        return index >= 0 && index < indexes.length ? indexes[index] : null;
+    }
+
+    private static MetaIndex findIndex(Entity1_10Types.EntityType type, int index) {
         Entity1_10Types.EntityType currentType = type;
         do {
             Optional<MetaIndex> optMeta = getIndex(currentType, index);
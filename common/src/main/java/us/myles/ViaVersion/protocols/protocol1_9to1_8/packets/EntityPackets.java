@@ -53,14 +53,15 @@ public class EntityPackets {
 
                             PacketWrapper passengerPacket = wrapper.create(0x40); // Passenger Packet ID
                             if (vehicle == -1) {
-                                if (!tracker.getVehicleMap().containsKey(passenger))
+                                int oldVehicle = tracker.removeVehicle(passenger);
+                                if (oldVehicle == -1)
                                     return null; // Cancel
-                                passengerPacket.write(Type.VAR_INT, tracker.getVehicleMap().remove(passenger));
+                                passengerPacket.write(Type.VAR_INT, oldVehicle);
                                 passengerPacket.write(Type.VAR_INT_ARRAY, new Integer[]{});
                             } else {
                                 passengerPacket.write(Type.VAR_INT, vehicle);
                                 passengerPacket.write(Type.VAR_INT_ARRAY, new Integer[]{passenger});
-                                tracker.getVehicleMap().put(passenger, vehicle);
+                                tracker.setVehicle(passenger, vehicle);
                             }
                             passengerPacket.send(Protocol1_9To1_8.class); // Send the packet
                         }
@@ -193,7 +194,7 @@ public class EntityPackets {
                         List<Metadata> metadataList = wrapper.get(Types1_9.METADATA_LIST, 0);
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        Entity1_10Types.EntityType type = tracker.getClientEntityTypes().get(entityID);
+                        Entity1_10Types.EntityType type = tracker.getEntityType(entityID);
                         if (type != null) {
                             MetadataRewriter.transform(type, metadataList);
                         } else {
@@ -181,7 +181,7 @@ public class PlayerPackets {
                     public void handle(PacketWrapper wrapper) throws Exception {
                         int entityID = wrapper.get(Type.INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        tracker.getClientEntityTypes().put(entityID, Entity1_10Types.EntityType.PLAYER);
+                        tracker.addEntity(entityID, Entity1_10Types.EntityType.PLAYER);
                         tracker.setEntityID(entityID);
                     }
                 });
@@ -55,7 +55,7 @@ public class SpawnPackets {
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         int typeID = wrapper.get(Type.BYTE, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        tracker.getClientEntityTypes().put(entityID, Entity1_10Types.getTypeFromId(typeID, true));
+                        tracker.addEntity(entityID, Entity1_10Types.getTypeFromId(typeID, true));
                         tracker.sendMetadataBuffer(entityID);
                     }
                 });
@@ -130,7 +130,7 @@ public class SpawnPackets {
                     public void handle(PacketWrapper wrapper) throws Exception {
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        tracker.getClientEntityTypes().put(entityID, Entity1_10Types.EntityType.EXPERIENCE_ORB);
+                        tracker.addEntity(entityID, Entity1_10Types.EntityType.EXPERIENCE_ORB);
                         tracker.sendMetadataBuffer(entityID);
                     }
                 });
@@ -156,7 +156,7 @@ public class SpawnPackets {
                         // Currently only lightning uses this
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        tracker.getClientEntityTypes().put(entityID, Entity1_10Types.EntityType.LIGHTNING);
+                        tracker.addEntity(entityID, Entity1_10Types.EntityType.LIGHTNING);
                         tracker.sendMetadataBuffer(entityID);
                     }
                 });
@@ -190,7 +190,7 @@ public class SpawnPackets {
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         int typeID = wrapper.get(Type.UNSIGNED_BYTE, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        tracker.getClientEntityTypes().put(entityID, Entity1_10Types.getTypeFromId(typeID, false));
+                        tracker.addEntity(entityID, Entity1_10Types.getTypeFromId(typeID, false));
                         tracker.sendMetadataBuffer(entityID);
                     }
                 });
@@ -214,7 +214,7 @@ public class SpawnPackets {
                         List<Metadata> metadataList = wrapper.get(Types1_9.METADATA_LIST, 0);
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        Entity1_10Types.EntityType type = tracker.getClientEntityTypes().get(entityID);
+                        Entity1_10Types.EntityType type = tracker.getEntityType(entityID);
                         if (type != null) {
                             MetadataRewriter.transform(type, metadataList);
                         } else {
@@ -248,7 +248,7 @@ public class SpawnPackets {
                     public void handle(PacketWrapper wrapper) throws Exception {
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        tracker.getClientEntityTypes().put(entityID, Entity1_10Types.EntityType.PAINTING);
+                        tracker.addEntity(entityID, Entity1_10Types.EntityType.PAINTING);
                         tracker.sendMetadataBuffer(entityID);
                     }
                 });
@@ -282,7 +282,7 @@ public class SpawnPackets {
                     public void handle(PacketWrapper wrapper) throws Exception {
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        tracker.getClientEntityTypes().put(entityID, Entity1_10Types.EntityType.PLAYER);
+                        tracker.addEntity(entityID, Entity1_10Types.EntityType.PLAYER);
                         tracker.sendMetadataBuffer(entityID);
                     }
                 });
@@ -320,7 +320,7 @@ public class SpawnPackets {
                         List<Metadata> metadataList = wrapper.get(Types1_9.METADATA_LIST, 0);
                         int entityID = wrapper.get(Type.VAR_INT, 0);
                         EntityTracker tracker = wrapper.user().get(EntityTracker.class);
-                        Entity1_10Types.EntityType type = tracker.getClientEntityTypes().get(entityID);
+                        Entity1_10Types.EntityType type = tracker.getEntityType(entityID);
                         if (type != null) {
                             MetadataRewriter.transform(type, metadataList);
                         } else {
@@ -4,17 +4,20 @@ import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.google.common.base.Optional;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import us.myles.ViaVersion.api.PacketWrapper;
 import us.myles.ViaVersion.api.Via;
 import us.myles.ViaVersion.api.minecraft.Position;
 import us.myles.ViaVersion.api.minecraft.chunks.Chunk1_8;
 import us.myles.ViaVersion.api.minecraft.item.Item;
 import us.myles.ViaVersion.api.protocol.Protocol;
+import us.myles.ViaVersion.api.protocol.ProtocolVersion;
 import us.myles.ViaVersion.api.remapper.PacketHandler;
 import us.myles.ViaVersion.api.remapper.PacketRemapper;
 import us.myles.ViaVersion.api.remapper.ValueCreator;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.packets.State;
+import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 import us.myles.ViaVersion.protocols.protocol1_9to1_8.ItemRewriter;
 import us.myles.ViaVersion.protocols.protocol1_9to1_8.Protocol1_9To1_8;
 import us.myles.ViaVersion.protocols.protocol1_9to1_8.providers.BulkChunkTranslatorProvider;
@@ -122,15 +125,21 @@ public class WorldPackets {
                     public void handle(PacketWrapper wrapper) throws Exception {
                         ClientChunks clientChunks = wrapper.user().get(ClientChunks.class);
                         Chunk1_9to1_8Type type = new Chunk1_9to1_8Type(clientChunks);
+                        // The chunk can only be written straight away if no other protocol reads it as chunk
+                        if (wrapper.user().get(ProtocolInfo.class).getProtocolVersion() < ProtocolVersion.v1_9_3.getId()) {
+                            ByteBuf input = wrapper.read(Type.REMAINING_BUFFER);
+                            ByteBuf output = Unpooled.buffer(input.readableBytes());
+                            if (type.transcode(input, output, clientChunks)) {
+                                wrapper.write(Type.REMAINING_BUFFER, output);
+                            } else {
+                                unloadChunk(wrapper, input.getInt(0), input.getInt(4));
+                            }
+                            return;
+                        }
+
                         Chunk1_8 chunk = (Chunk1_8) wrapper.read(type);
                         if (chunk.isUnloadPacket()) {
-                            wrapper.setId(0x1D);
-
-                            wrapper.write(Type.INT, chunk.getX());
-                            wrapper.write(Type.INT, chunk.getZ());
-                            // Remove commandBlocks on chunk unload
-                            CommandBlockProvider provider = Via.getManager().getProviders().get(CommandBlockProvider.class);
-                            provider.unloadChunk(wrapper.user(), chunk.getX(), chunk.getZ());
+                            unloadChunk(wrapper, chunk.getX(), chunk.getZ());
                         } else {
                             wrapper.write(type, chunk);
                             // eat any other data (Usually happens with unload packets)
@@ -415,4 +424,14 @@ public class WorldPackets {
             }
         });
     }
+
+    private static void unloadChunk(PacketWrapper wrapper, int chunkX, int chunkZ) throws Exception {
+        wrapper.setId(0x1D);
+
+        wrapper.write(Type.INT, chunkX);
+        wrapper.write(Type.INT, chunkZ);
+        // Remove commandBlocks on chunk unload
+        CommandBlockProvider provider = Via.getManager().getProviders().get(CommandBlockProvider.class);
+        provider.unloadChunk(wrapper.user(), chunkX, chunkZ);
+    }
 }
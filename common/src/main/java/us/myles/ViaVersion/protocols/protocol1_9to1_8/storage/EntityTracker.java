@@ -3,6 +3,7 @@ package us.myles.ViaVersion.protocols.protocol1_9to1_8.storage;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import us.myles.ViaVersion.api.PacketWrapper;
@@ -26,18 +27,24 @@ import us.myles.ViaVersion.protocols.protocol1_9to1_8.chat.GameMode;
 import us.myles.ViaVersion.protocols.protocol1_9to1_8.metadata.MetadataRewriter;
 import us.myles.ViaVersion.protocols.protocol1_9to1_8.providers.BossBarProvider;
 import us.myles.ViaVersion.protocols.protocol1_9to1_8.providers.EntityIdProvider;
+import us.myles.ViaVersion.util.IntIntMap;
+import us.myles.ViaVersion.util.IntObjectMap;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 @Getter
 public class EntityTracker extends StoredObject implements ExternalJoinGameListener {
-    private final Map<Integer, UUID> uuidMap = new ConcurrentHashMap<>();
-    private final Map<Integer, Entity1_10Types.EntityType> clientEntityTypes = new ConcurrentHashMap<>();
-    private final Map<Integer, List<Metadata>> metadataBuffer = new ConcurrentHashMap<>();
-    private final Map<Integer, Integer> vehicleMap = new ConcurrentHashMap<>();
-    private final Map<Integer, BossBar> bossBarMap = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final IntObjectMap<UUID> uuidMap = new IntObjectMap<>();
+    @Getter(AccessLevel.NONE)
+    private final IntObjectMap<Entity1_10Types.EntityType> clientEntityTypes = new IntObjectMap<>();
+    @Getter(AccessLevel.NONE)
+    private final IntObjectMap<List<Metadata>> metadataBuffer = new IntObjectMap<>();
+    @Getter(AccessLevel.NONE)
+    private final IntIntMap vehicleMap = new IntIntMap(4, -1);
+    @Getter(AccessLevel.NONE)
+    private final IntObjectMap<BossBar> bossBarMap = new IntObjectMap<>();
     private final Set<Integer> validBlocking = Sets.newConcurrentHashSet();
     private final Set<Integer> knownHolograms = Sets.newConcurrentHashSet();
     private final Cache<Position, Integer> blockInteractions = CacheBuilder.newBuilder().maximumSize(10).expireAfterAccess(250, TimeUnit.MILLISECONDS).build();
@@ -69,6 +76,70 @@ public class EntityTracker extends StoredObject implements ExternalJoinGameListe
         return uuid;
     }
 
+    public void addEntity(int entityId, Entity1_10Types.EntityType type) {
+        clientEntityTypes.put(entityId, type);
+    }
+
+    public Entity1_10Types.EntityType getEntityType(int entityId) {
+        return clientEntityTypes.get(entityId);
+    }
+
+    public void setVehicle(int passenger, int vehicle) {
+        vehicleMap.put(passenger, vehicle);
+    }
+
+    /**
+     * Remove the vehicle of a passenger
+     *
+     * @param passenger The passenger
+     * @return The vehicle, or -1 if the passenger wasn't riding
+     */
+    public int removeVehicle(int passenger) {
+        return vehicleMap.remove(passenger);
+    }
+
+    /**
+     * @deprecated The map is a view which may only be used from the event loop of the connection, use {@link #getEntityUUID(int)}
+     */
+    @Deprecated
+    public Map<Integer, UUID> getUuidMap() {
+        return uuidMap.asMap();
+    }
+
+    /**
+     * @deprecated The map is a view which may only be used from the event loop of the connection,
+     * use {@link #getEntityType(int)} and {@link #addEntity(int, Entity1_10Types.EntityType)}
+     */
+    @Deprecated
+    public Map<Integer, Entity1_10Types.EntityType> getClientEntityTypes() {
+        return clientEntityTypes.asMap();
+    }
+
+    /**
+     * @deprecated The map is a view which may only be used from the event loop of the connection
+     */
+    @Deprecated
+    public Map<Integer, List<Metadata>> getMetadataBuffer() {
+        return metadataBuffer.asMap();
+    }
+
+    /**
+     * @deprecated The map is a view which may only be used from the event loop of the connection,
+     * use {@link #setVehicle(int, int)} and {@link #removeVehicle(int)}
+     */
+    @Deprecated
+    public Map<Integer, Integer> getVehicleMap() {
+        return vehicleMap.asMap();
+    }
+
+    /**
+     * @deprecated The map is a view which may only be used from the event loop of the connection
+     */
+    @Deprecated
+    public Map<Integer, BossBar> getBossBarMap() {
+        return bossBarMap.asMap();
+    }
+
     public void setSecondHand(Item item) {
         setSecondHand(entityID, item);
     }
@@ -293,7 +364,7 @@ public class EntityTracker extends StoredObject implements ExternalJoinGameListe
             PacketWrapper wrapper = new PacketWrapper(0x39, null, getUser());
             wrapper.write(Type.VAR_INT, entityID);
             wrapper.write(Types1_9.METADATA_LIST, metadataList);
-            MetadataRewriter.transform(getClientEntityTypes().get(entityID), metadataList);
+            MetadataRewriter.transform(clientEntityTypes.get(entityID), metadataList);
             handleMetadata(entityID, metadataList);
             if (metadataList.size() > 0) {
                 try {
@@ -316,6 +387,6 @@ public class EntityTracker extends StoredObject implements ExternalJoinGameListe
 
     @Override
     public void onExternalJoinGame(int playerEntityId) {
-        clientEntityTypes.put(playerEntityId, Entity1_10Types.EntityType.PLAYER);
+        addEntity(playerEntityId, Entity1_10Types.EntityType.PLAYER);
     }
 }
@@ -8,6 +8,8 @@ import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
 import us.myles.ViaVersion.api.type.PartialType;
 import us.myles.ViaVersion.api.type.Type;
 import us.myles.ViaVersion.api.type.types.minecraft.BaseChunkType;
+import us.myles.ViaVersion.api.type.types.version.ChunkSectionType1_8;
+import us.myles.ViaVersion.api.type.types.version.ChunkSectionType1_9;
 import us.myles.ViaVersion.api.type.types.version.Types1_8;
 import us.myles.ViaVersion.api.type.types.version.Types1_9;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
@@ -32,6 +34,19 @@ public class Chunk1_9to1_8Type extends PartialType<Chunk, ClientChunks> {
      * Length of biome data.
      */
     private static final int BIOME_DATA_LENGTH = 256;
+    // Scratch arrays for transcoding a section
+    private static final ThreadLocal<int[]> PALETTE = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[ChunkSection.SIZE + 1];
+        }
+    };
+    private static final ThreadLocal<int[]> INDEXES = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[ChunkSection.SIZE];
+        }
+    };
 
     public Chunk1_9to1_8Type(ClientChunks chunks) {
         super(chunks, Chunk.class);
@@ -71,17 +86,11 @@ public class Chunk1_9to1_8Type extends PartialType<Chunk, ClientChunks> {
         }
         int sectionCount = usedSections.cardinality(); // the amount of sections set
 
-        // If the chunks is from a chunks bulk, it is never an unload packet
-        // Other wise, if it has no data, it is :)
-        boolean isBulkPacket = param.getBulkChunks().remove(chunkHash);
-        if (sectionCount == 0 && groundUp && !isBulkPacket && param.getLoadedChunks().contains(chunkHash)) {
-            // This is a chunks unload packet
-            param.getLoadedChunks().remove(chunkHash);
+        if (isUnloadPacket(param, chunkHash, groundUp, sectionCount)) {
             return new Chunk1_8(chunkX, chunkZ);
         }
 
         int startIndex = input.readerIndex();
-        param.getLoadedChunks().add(chunkHash); // mark chunks as loaded
 
         // Read blocks
         for (int i = 0; i < SECTION_COUNT; i++) {
@@ -128,6 +137,95 @@ public class Chunk1_9to1_8Type extends PartialType<Chunk, ClientChunks> {
         return new Chunk1_8(chunkX, chunkZ, groundUp, bitmask, sections, biomeData, new ArrayList<CompoundTag>());
     }
 
+    /**
+     * Translate a chunk straight to the 1.9 format, without creating sections.
+     * This can only be used if no other protocol reads the chunk, so clients older than 1.9.3.
+     * Pistons don't have to be replaced then, that's only done for clients which get 1.10 chunks.
+     *
+     * @param input  The buffer to read the 1.8 chunk from
+     * @param output The buffer to write the 1.9 chunk to
+     * @param param  The loaded chunks of the player
+     * @return False if this is an unload packet, nothing is written then
+     * @throws Exception If the chunk can't be read
+     */
+    public boolean transcode(ByteBuf input, ByteBuf output, ClientChunks param) throws Exception {
+        int chunkX = input.readInt();
+        int chunkZ = input.readInt();
+        boolean groundUp = input.readByte() != 0;
+        int bitmask = input.readUnsignedShort();
+        int dataLength = Type.VAR_INT.read(input);
+        int sectionCount = Integer.bitCount(bitmask);
+
+        if (isUnloadPacket(param, toLong(chunkX, chunkZ), groundUp, sectionCount)) {
+            return false;
+        }
+
+        // All blocks come first, then all block light, then all sky light
+        int startIndex = input.readerIndex();
+        int blockLightIndex = startIndex + sectionCount * ChunkSectionType1_8.BLOCKS_LENGTH;
+        int skyLightIndex = blockLightIndex + sectionCount * ChunkSection.LIGHT_LENGTH;
+        int bytesLeft = dataLength - (skyLightIndex - startIndex);
+        boolean skyLight = bytesLeft >= ChunkSection.LIGHT_LENGTH;
+        if (skyLight) {
+            bytesLeft -= sectionCount * ChunkSection.LIGHT_LENGTH;
+        }
+        int biomeIndex = startIndex + dataLength - bytesLeft;
+        boolean biomeData = bytesLeft >= BIOME_DATA_LENGTH;
+        if (biomeData) {
+            bytesLeft -= BIOME_DATA_LENGTH;
+        }
+        if (bytesLeft > 0) {
+            Via.getPlatform().getLogger().log(Level.WARNING, bytesLeft + " Bytes left after reading chunks! (" + groundUp + ")");
+        }
+
+        output.writeInt(chunkX);
+        output.writeInt(chunkZ);
+        output.writeByte(groundUp ? 0x01 : 0x00);
+        Type.VAR_INT.write(output, bitmask);
+
+        ByteBuf buf = output.alloc().buffer();
+        try {
+            int[] palette = PALETTE.get();
+            int[] indexes = INDEXES.get();
+            int section = 0;
+            for (int i = 0; i < SECTION_COUNT; i++) {
+                if ((bitmask & (1 << i)) == 0) continue; // Section not set
+                int paletteSize = ChunkSectionType1_8.readPalette(input, palette, indexes);
+                ChunkSectionType1_9.write(buf, palette, paletteSize, indexes);
+
+                buf.writeBytes(input, blockLightIndex + section * ChunkSection.LIGHT_LENGTH, ChunkSection.LIGHT_LENGTH);
+                if (skyLight) {
+                    buf.writeBytes(input, skyLightIndex + section * ChunkSection.LIGHT_LENGTH, ChunkSection.LIGHT_LENGTH);
+                }
+                section++;
+            }
+            Type.VAR_INT.write(output, buf.readableBytes() + (biomeData ? BIOME_DATA_LENGTH : 0));
+            output.writeBytes(buf);
+        } finally {
+            buf.release(); // release buffer
+        }
+
+        if (biomeData) {
+            output.writeBytes(input, biomeIndex, BIOME_DATA_LENGTH);
+        }
+        input.readerIndex(startIndex + dataLength);
+        return true;
+    }
+
+    private static boolean isUnloadPacket(ClientChunks param, long chunkHash, boolean groundUp, int sectionCount) {
+        // If the chunks is from a chunks bulk, it is never an unload packet
+        // Other wise, if it has no data, it is :)
+        boolean isBulkPacket = param.getBulkChunks().remove(chunkHash);
+        if (sectionCount == 0 && groundUp && !isBulkPacket && param.getLoadedChunks().contains(chunkHash)) {
+            // This is a chunks unload packet
+            param.getLoadedChunks().remove(chunkHash);
+            return true;
+        }
+
+        param.getLoadedChunks().add(chunkHash); // mark chunks as loaded
+        return false;
+    }
+
     @Override
     public void write(ByteBuf output, ClientChunks param, Chunk input) throws Exception {
         if (!(input instanceof Chunk1_8)) throw new Exception("Incompatible chunk, " + input.getClass());
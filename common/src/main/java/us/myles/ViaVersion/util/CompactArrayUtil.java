@@ -0,0 +1,205 @@
+package us.myles.ViaVersion.util;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads and writes the packed long arrays of chunk sections, where values can span two longs.
+ * <p>
+ * The longs are read from and written to the buffer directly, a whole long at a time,
+ * instead of computing the position of every value separately.
+ */
+public class CompactArrayUtil {
+
+    private CompactArrayUtil() {
+    }
+
+    /**
+     * Get the amount of longs needed to store values
+     *
+     * @param bitsPerValue The bits per value
+     * @param size         The amount of values
+     * @return The amount of longs
+     */
+    public static int getLongLength(int bitsPerValue, int size) {
+        return (size * bitsPerValue + 63) >> 6;
+    }
+
+    /**
+     * Read packed values from a buffer
+     *
+     * @param buffer       The buffer to read {@link #getLongLength(int, int)} longs from
+     * @param bitsPerValue The bits per value, between 1 and 32
+     * @param values       The array to fill with the values
+     */
+    public static void read(ByteBuf buffer, int bitsPerValue, int[] values) {
+        switch (bitsPerValue) {
+            case 4:
+                read4(buffer, values);
+                return;
+            case 8:
+                read8(buffer, values);
+                return;
+        }
+
+        long mask = (1L << bitsPerValue) - 1;
+        long word = 0;
+        int bitsLeft = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (bitsLeft >= bitsPerValue) {
+                values[i] = (int) (word & mask);
+                word >>>= bitsPerValue;
+                bitsLeft -= bitsPerValue;
+            } else {
+                // The value starts in this long and ends in the next one
+                long next = buffer.readLong();
+                values[i] = (int) ((word | next << bitsLeft) & mask);
+                word = next >>> (bitsPerValue - bitsLeft);
+                bitsLeft += 64 - bitsPerValue;
+            }
+        }
+    }
+
+    /**
+     * Write values packed into longs to a buffer
+     *
+     * @param buffer       The buffer to write {@link #getLongLength(int, int)} longs to
+     * @param bitsPerValue The bits per value, between 1 and 32
+     * @param values       The values
+     */
+    public static void write(ByteBuf buffer, int bitsPerValue, int[] values) {
+        switch (bitsPerValue) {
+            case 4:
+                write4(buffer, values);
+                return;
+            case 8:
+                write8(buffer, values);
+                return;
+        }
+
+        long mask = (1L << bitsPerValue) - 1;
+        long word = 0;
+        int bitsUsed = 0;
+        for (int i = 0; i < values.length; i++) {
+            long value = values[i] & mask;
+            word |= value << bitsUsed;
+            bitsUsed += bitsPerValue;
+            if (bitsUsed >= 64) {
+                buffer.writeLong(word);
+                bitsUsed -= 64;
+                // Carry the bits which didn't fit into the next long
+                word = bitsUsed == 0 ? 0 : value >>> (bitsPerValue - bitsUsed);
+            }
+        }
+        if (bitsUsed > 0) {
+            buffer.writeLong(word);
+        }
+    }
+
+    // 4 and 8 bits never span two longs, so every long is unpacked at once
+
+    private static void read4(ByteBuf buffer, int[] values) {
+        int i = 0;
+        for (; i + 16 <= values.length; i += 16) {
+            long word = buffer.readLong();
+            int low = (int) word;
+            int high = (int) (word >>> 32);
+            values[i] = low & 0xF;
+            values[i + 1] = low >>> 4 & 0xF;
+            values[i + 2] = low >>> 8 & 0xF;
+            values[i + 3] = low >>> 12 & 0xF;
+            values[i + 4] = low >>> 16 & 0xF;
+            values[i + 5] = low >>> 20 & 0xF;
+            values[i + 6] = low >>> 24 & 0xF;
+            values[i + 7] = low >>> 28;
+            values[i + 8] = high & 0xF;
+            values[i + 9] = high >>> 4 & 0xF;
+            values[i + 10] = high >>> 8 & 0xF;
+            values[i + 11] = high >>> 12 & 0xF;
+            values[i + 12] = high >>> 16 & 0xF;
+            values[i + 13] = high >>> 20 & 0xF;
+            values[i + 14] = high >>> 24 & 0xF;
+            values[i + 15] = high >>> 28;
+        }
+        if (i < values.length) {
+            long word = buffer.readLong();
+            for (; i < values.length; i++, word >>>= 4) {
+                values[i] = (int) (word & 0xF);
+            }
+        }
+    }
+
+    private static void read8(ByteBuf buffer, int[] values) {
+        int i = 0;
+        for (; i + 8 <= values.length; i += 8) {
+            long word = buffer.readLong();
+            int low = (int) word;
+            int high = (int) (word >>> 32);
+            values[i] = low & 0xFF;
+            values[i + 1] = low >>> 8 & 0xFF;
+            values[i + 2] = low >>> 16 & 0xFF;
+            values[i + 3] = low >>> 24;
+            values[i + 4] = high & 0xFF;
+            values[i + 5] = high >>> 8 & 0xFF;
+            values[i + 6] = high >>> 16 & 0xFF;
+            values[i + 7] = high >>> 24;
+        }
+        if (i < values.length) {
+            long word = buffer.readLong();
+            for (; i < values.length; i++, word >>>= 8) {
+                values[i] = (int) (word & 0xFF);
+            }
+        }
+    }
+
+    private static void write4(ByteBuf buffer, int[] values) {
+        int i = 0;
+        for (; i + 16 <= values.length; i += 16) {
+            int low = values[i] & 0xF
+                    | (values[i + 1] & 0xF) << 4
+                    | (values[i + 2] & 0xF) << 8
+                    | (values[i + 3] & 0xF) << 12
+                    | (values[i + 4] & 0xF) << 16
+                    | (values[i + 5] & 0xF) << 20
+                    | (values[i + 6] & 0xF) << 24
+                    | (values[i + 7] & 0xF) << 28;
+            int high = values[i + 8] & 0xF
+                    | (values[i + 9] & 0xF) << 4
+                    | (values[i + 10] & 0xF) << 8
+                    | (values[i + 11] & 0xF) << 12
+                    | (values[i + 12] & 0xF) << 16
+                    | (values[i + 13] & 0xF) << 20
+                    | (values[i + 14] & 0xF) << 24
+                    | (values[i + 15] & 0xF) << 28;
+            buffer.writeLong((long) high << 32 | low & 0xFFFFFFFFL);
+        }
+        if (i < values.length) {
+            long word = 0;
+            for (int shift = 0; i < values.length; i++, shift += 4) {
+                word |= (long) (values[i] & 0xF) << shift;
+            }
+            buffer.writeLong(word);
+        }
+    }
+
+    private static void write8(ByteBuf buffer, int[] values) {
+        int i = 0;
+        for (; i + 8 <= values.length; i += 8) {
+            int low = values[i] & 0xFF
+                    | (values[i + 1] & 0xFF) << 8
+                    | (values[i + 2] & 0xFF) << 16
+                    | (values[i + 3] & 0xFF) << 24;
+            int high = values[i + 4] & 0xFF
+                    | (values[i + 5] & 0xFF) << 8
+                    | (values[i + 6] & 0xFF) << 16
+                    | (values[i + 7] & 0xFF) << 24;
+            buffer.writeLong((long) high << 32 | low & 0xFFFFFFFFL);
+        }
+        if (i < values.length) {
+            long word = 0;
+            for (int shift = 0; i < values.length; i++, shift += 8) {
+                word |= (long) (values[i] & 0xFF) << shift;
+            }
+            buffer.writeLong(word);
+        }
+    }
+}
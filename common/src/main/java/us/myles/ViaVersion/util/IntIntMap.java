@@ -0,0 +1,269 @@
+package us.myles.ViaVersion.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from int to int using open addressing with linear probing, so neither keys nor values are boxed.
+ * <p>
+ * Not thread safe.
+ */
+public class IntIntMap {
+    private static final int MIN_CAPACITY = 8;
+    private final int missingValue;
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private Map<Integer, Integer> mapView;
+
+    /**
+     * Create a new map
+     *
+     * @param expectedSize The amount of entries the map should hold without resizing
+     * @param missingValue The value returned for keys which aren't in the map
+     */
+    public IntIntMap(int expectedSize, int missingValue) {
+        this.missingValue = missingValue;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key The key
+     * @return The value, or the missing value if the key isn't in the map
+     */
+    public int get(int key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Put a value in the map
+     *
+     * @param key   The key
+     * @param value The value
+     * @return The previous value, or the missing value if the key wasn't in the map
+     */
+    public int put(int key, int value) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return missingValue;
+    }
+
+    /**
+     * Remove a key from the map
+     *
+     * @param key The key
+     * @return The removed value, or the missing value if the key wasn't in the map
+     */
+    public int remove(int key) {
+        int slot = find(key);
+        if (slot == -1) return missingValue;
+
+        int previous = values[slot];
+        used[slot] = false;
+        size--;
+        // Shift the following entries back, so lookups don't stop at the removed slot
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!used[next]) break;
+            int home = hash(keys[next]) & mask;
+            boolean reachable = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+            if (reachable) continue;
+
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            used[slot] = true;
+            used[next] = false;
+            slot = next;
+        }
+        return previous;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMissingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Get a {@link Map} view of this map, for code which expects boxed maps.
+     * Changes go both ways, entries can't be removed through the iterator of the view.
+     *
+     * @return The view
+     */
+    public Map<Integer, Integer> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    private int find(int key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(int key) {
+        // Spread sequential ids over the table
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private class MapView extends AbstractMap<Integer, Integer> {
+        @Override
+        public Integer get(Object key) {
+            if (!(key instanceof Integer)) return null;
+            int slot = find((Integer) key);
+            return slot == -1 ? null : values[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && IntIntMap.this.containsKey((Integer) key);
+        }
+
+        @Override
+        public Integer put(Integer key, Integer value) {
+            Integer previous = get(key);
+            IntIntMap.this.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public Integer remove(Object key) {
+            Integer previous = get(key);
+            if (previous != null) {
+                IntIntMap.this.remove((Integer) key);
+            }
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IntIntMap.this.clear();
+        }
+
+        @Override
+        public Set<Entry<Integer, Integer>> entrySet() {
+            return new AbstractSet<Entry<Integer, Integer>>() {
+                @Override
+                public Iterator<Entry<Integer, Integer>> iterator() {
+                    return new Iterator<Entry<Integer, Integer>>() {
+                        private int slot = advance(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < used.length;
+                        }
+
+                        @Override
+                        public Entry<Integer, Integer> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            Entry<Integer, Integer> entry = new SimpleImmutableEntry<>(keys[slot], values[slot]);
+                            slot = advance(slot + 1);
+                            return entry;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+
+                        private int advance(int slot) {
+                            while (slot < used.length && !used[slot]) {
+                                slot++;
+                            }
+                            return slot;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
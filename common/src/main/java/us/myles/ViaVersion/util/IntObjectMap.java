@@ -0,0 +1,280 @@
+package us.myles.ViaVersion.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from int to objects using open addressing with linear probing, so keys aren't boxed.
+ * <p>
+ * Not thread safe, it's meant to be used from a single thread like the event loop of a connection.
+ *
+ * @param <V> The type of the values, which can't be null
+ */
+public class IntObjectMap<V> {
+    private static final int MIN_CAPACITY = 8;
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private Map<Integer, V> mapView;
+
+    public IntObjectMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Create a new map
+     *
+     * @param expectedSize The amount of entries the map should hold without resizing
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key The key
+     * @return The value, or null if the key isn't in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = find(key);
+        return slot == -1 ? null : (V) values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Put a value in the map
+     *
+     * @param key   The key
+     * @param value The value, not null
+     * @return The previous value, or null if the key wasn't in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) throw new NullPointerException("value");
+
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Remove a key from the map
+     *
+     * @param key The key
+     * @return The removed value, or null if the key wasn't in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot == -1) return null;
+
+        V previous = (V) values[slot];
+        values[slot] = null;
+        size--;
+        // Shift the following entries back, so lookups don't stop at the removed slot
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) break;
+            int home = hash(keys[next]) & mask;
+            boolean reachable = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+            if (reachable) continue;
+
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            values[next] = null;
+            slot = next;
+        }
+        return previous;
+    }
+
+    /**
+     * Remove multiple keys from the map, and shrink it if it got mostly empty
+     *
+     * @param keys The keys
+     */
+    public void removeAll(Integer[] keys) {
+        for (Integer key : keys) {
+            remove(key);
+        }
+        if (this.keys.length > MIN_CAPACITY && size * 8 < this.keys.length) {
+            rehash(capacityFor(size));
+        }
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a {@link Map} view of this map, for code which expects boxed maps.
+     * Changes go both ways, entries can't be removed through the iterator of the view.
+     *
+     * @return The view
+     */
+    public Map<Integer, V> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    /**
+     * Get the memory used by the map itself, without the values
+     *
+     * @return The approximate size of the key and value tables in bytes
+     */
+    public long getMemoryUsage() {
+        // Array headers, int keys and (usually compressed) references
+        return 2 * 16 + (long) keys.length * 4 + (long) values.length * 4;
+    }
+
+    private int find(int key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != null) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == null) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(int key) {
+        // Spread sequential ids over the table
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private class MapView extends AbstractMap<Integer, V> {
+        @Override
+        public V get(Object key) {
+            return key instanceof Integer ? IntObjectMap.this.get((Integer) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && IntObjectMap.this.containsKey((Integer) key);
+        }
+
+        @Override
+        public V put(Integer key, V value) {
+            return IntObjectMap.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return key instanceof Integer ? IntObjectMap.this.remove((Integer) key) : null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IntObjectMap.this.clear();
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            return new AbstractSet<Entry<Integer, V>>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    return new Iterator<Entry<Integer, V>>() {
+                        private int slot = advance(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return slot < values.length;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Entry<Integer, V> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            Entry<Integer, V> entry = new SimpleImmutableEntry<>(keys[slot], (V) values[slot]);
+                            slot = advance(slot + 1);
+                            return entry;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+
+                        private int advance(int slot) {
+                            while (slot < values.length && values[slot] == null) {
+                                slot++;
+                            }
+                            return slot;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package us.myles.ViaVersion.common.test.chunk;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.minecraft.chunks.BaseChunk;
+import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSectionTasks;
+import us.myles.ViaVersion.protocols.protocol1_13to1_12_2.types.Chunk1_13Type;
+import us.myles.ViaVersion.protocols.protocol1_14to1_13_2.types.Chunk1_14Type;
+import us.myles.ViaVersion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ChunkSectionTasksTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    public void resetPool() {
+        ChunkSectionTasks.setPool(null);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testParallelRead() throws Exception {
+        ClientWorld world = new ClientWorld(null);
+        world.setEnvironment(0);
+        Chunk1_13Type type = new Chunk1_13Type(world);
+        ByteBuf input = Unpooled.buffer();
+        type.write(input, world, createChunk());
+
+        ChunkSectionTasks.setPool(null);
+        ByteBuf sequential = Unpooled.buffer();
+        type.write(sequential, world, type.read(input.duplicate(), world));
+
+        ChunkSectionTasks.setPool(pool);
+        Chunk chunk = type.read(input.duplicate(), world);
+        ChunkSectionTasks.setPool(null);
+        ByteBuf parallel = Unpooled.buffer();
+        type.write(parallel, world, chunk);
+
+        Assertions.assertTrue(ByteBufUtil.equals(input, sequential));
+        Assertions.assertTrue(ByteBufUtil.equals(sequential, parallel));
+    }
+
+    @Test
+    public void testParallelWrite() throws Exception {
+        Chunk chunk = createChunk();
+
+        ChunkSectionTasks.setPool(null);
+        ByteBuf sequential = Unpooled.buffer();
+        Chunk1_14Type.writeSections(sequential, chunk);
+
+        ChunkSectionTasks.setPool(pool);
+        ByteBuf parallel = Unpooled.buffer();
+        Chunk1_14Type.writeSections(parallel, chunk);
+
+        Assertions.assertTrue(sequential.readableBytes() > 0);
+        Assertions.assertTrue(ByteBufUtil.equals(sequential, parallel));
+    }
+
+    private static Chunk createChunk() {
+        Random random = new Random(17);
+        ChunkSection[] sections = new ChunkSection[16];
+        int bitmask = 0;
+        for (int s = 0; s < 16; s++) {
+            if (s % 5 == 4) continue; // Leave some sections out
+            ChunkSection section = new ChunkSection();
+            // Different palette sizes, so the sections have different lengths
+            int blocks = 1 + s * s * 20;
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                section.setFlatBlock(i, random.nextInt(blocks));
+            }
+            byte[] light = new byte[ChunkSection.LIGHT_LENGTH];
+            random.nextBytes(light);
+            section.setBlockLight(light);
+            section.setSkyLight(light.clone());
+            sections[s] = section;
+            bitmask |= 1 << s;
+        }
+        return new BaseChunk(3, -4, true, bitmask, sections, new int[256], new ArrayList<CompoundTag>());
+    }
+}
@@ -0,0 +1,65 @@
+package us.myles.ViaVersion.common.test.chunk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.util.IntIntMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class ChunkSectionTest {
+    @Test
+    public void testLargePalette() {
+        // More than 256 different blocks need more than a byte per block
+        ChunkSection section = new ChunkSection();
+        for (int i = 0; i < ChunkSection.SIZE; i++) {
+            section.setFlatBlock(i, i % 1000 + 1);
+        }
+        Assertions.assertEquals(1001, section.getPaletteSize());
+        for (int i = 0; i < ChunkSection.SIZE; i++) {
+            Assertions.assertEquals(i % 1000 + 1, section.getFlatBlock(i));
+        }
+    }
+
+    @Test
+    public void testPaletteEntries() {
+        ChunkSection section = new ChunkSection();
+        section.setFlatBlock(0, 5);
+        section.setFlatBlock(1, 6);
+        section.setPaletteEntry(1, 7);
+        Assertions.assertEquals(7, section.getFlatBlock(0));
+        // 5 isn't in the palette anymore, so it gets a new entry
+        section.setFlatBlock(2, 5);
+        Assertions.assertEquals(4, section.getPaletteSize());
+
+        section.replacePaletteEntry(7, 8);
+        Assertions.assertEquals(8, section.getFlatBlock(0));
+        section.setFlatBlock(3, 8);
+        Assertions.assertEquals(4, section.getPaletteSize());
+    }
+
+    @Test
+    public void testIntIntMap() {
+        // Compare random operations against a HashMap
+        IntIntMap map = new IntIntMap(4, -1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(512);
+            if (random.nextBoolean()) {
+                Integer previous = expected.put(key, i);
+                Assertions.assertEquals(previous == null ? -1 : previous, map.put(key, i));
+            } else {
+                Integer previous = expected.remove(key);
+                Assertions.assertEquals(previous == null ? -1 : previous, map.remove(key));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (int key = 0; key < 512; key++) {
+            Integer value = expected.get(key);
+            Assertions.assertEquals(value == null ? -1 : value, map.get(key));
+        }
+    }
+}
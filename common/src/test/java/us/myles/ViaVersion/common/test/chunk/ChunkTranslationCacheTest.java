@@ -0,0 +1,23 @@
+package us.myles.ViaVersion.common.test.chunk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.minecraft.Environment;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkTranslationCache;
+
+public class ChunkTranslationCacheTest {
+    @Test
+    public void testInputMustMatch() {
+        ChunkTranslationCache<String> cache = new ChunkTranslationCache<>(1024 * 1024);
+        cache.put(Environment.NORMAL, 1, 2, new byte[]{1, 2, 3}, "translated", 10);
+
+        Assertions.assertEquals("translated", cache.get(Environment.NORMAL, 1, 2, new byte[]{1, 2, 3}));
+        // Changed chunk, other world or other position
+        Assertions.assertNull(cache.get(Environment.NORMAL, 1, 2, new byte[]{1, 2, 4}));
+        Assertions.assertNull(cache.get(Environment.NETHER, 1, 2, new byte[]{1, 2, 3}));
+        Assertions.assertNull(cache.get(Environment.NORMAL, 2, 1, new byte[]{1, 2, 3}));
+
+        cache.invalidate(Environment.NORMAL, 1, 2);
+        Assertions.assertNull(cache.get(Environment.NORMAL, 1, 2, new byte[]{1, 2, 3}));
+    }
+}
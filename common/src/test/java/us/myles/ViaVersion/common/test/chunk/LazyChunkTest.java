@@ -0,0 +1,67 @@
+package us.myles.ViaVersion.common.test.chunk;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.minecraft.chunks.BaseChunk;
+import us.myles.ViaVersion.api.minecraft.chunks.Chunk;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.minecraft.chunks.LazyChunk;
+import us.myles.ViaVersion.protocols.protocol1_9_1_2to1_9_3_4.types.Chunk1_9_3_4Type;
+import us.myles.ViaVersion.protocols.protocol1_9_3to1_9_1_2.storage.ClientWorld;
+
+import java.util.ArrayList;
+
+public class LazyChunkTest {
+    @Test
+    public void testUnchangedSections() throws Exception {
+        ClientWorld world = new ClientWorld(null);
+        world.setEnvironment(0);
+        Chunk1_9_3_4Type type = new Chunk1_9_3_4Type(world);
+
+        ChunkSection[] sections = new ChunkSection[16];
+        for (int s = 0; s < 16; s += 3) {
+            ChunkSection section = new ChunkSection();
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                section.setFlatBlock(i, (i + s) % 20 << 4);
+            }
+            byte[] light = new byte[ChunkSection.LIGHT_LENGTH];
+            light[s] = 15;
+            section.setBlockLight(light);
+            section.setSkyLight(light.clone());
+            sections[s] = section;
+        }
+        int bitmask = 1 | 1 << 3 | 1 << 6 | 1 << 9 | 1 << 12 | 1 << 15;
+        ByteBuf input = Unpooled.buffer();
+        type.write(input, world, new BaseChunk(1, 2, true, bitmask, sections, new int[256], new ArrayList<CompoundTag>()));
+
+        // Nothing is decoded, so the same bytes are written
+        Chunk chunk = type.read(input.duplicate(), world);
+        Assertions.assertTrue(chunk instanceof LazyChunk);
+        ByteBuf output = Unpooled.buffer();
+        type.write(output, world, chunk);
+        Assertions.assertTrue(ByteBufUtil.equals(input, output));
+
+        // A changed section is written again
+        chunk = type.read(input.duplicate(), world);
+        ((LazyChunk) chunk).getSection(6).setFlatBlock(0, 100 << 4);
+        output = Unpooled.buffer();
+        type.write(output, world, chunk);
+        Chunk read = type.read(output, world);
+        Assertions.assertEquals(100 << 4, read.getSections()[6].getFlatBlock(0));
+        for (int s = 0; s < 16; s++) {
+            if (sections[s] == null) {
+                Assertions.assertNull(read.getSections()[s]);
+                continue;
+            }
+            Assertions.assertArrayEquals(sections[s].getBlockLight(), read.getSections()[s].getBlockLight());
+            Assertions.assertArrayEquals(sections[s].getSkyLight(), read.getSections()[s].getSkyLight());
+            for (int i = s == 6 ? 1 : 0; i < ChunkSection.SIZE; i++) {
+                Assertions.assertEquals(sections[s].getFlatBlock(i), read.getSections()[s].getFlatBlock(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package us.myles.ViaVersion.common.test.chunk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.minecraft.chunks.PackedSection;
+
+import java.util.Random;
+
+public class PackedSectionTest {
+    @Test
+    public void testRandomValues() {
+        // Compare random changes against an array, also with more values than fit into 8 bits
+        Random random = new Random(0);
+        for (int values : new int[]{1, 3, 20, 300}) {
+            PackedSection section = new PackedSection();
+            int[] expected = new int[ChunkSection.SIZE];
+            int nonZeroCount = 0;
+            for (int i = 0; i < 50000; i++) {
+                int index = random.nextInt(ChunkSection.SIZE);
+                int value = random.nextInt(4) == 0 ? 0 : random.nextInt(values) * 16 + 1;
+                if (expected[index] == 0 && value != 0) nonZeroCount++;
+                if (expected[index] != 0 && value == 0) nonZeroCount--;
+                expected[index] = value;
+                section.set(index, value);
+                Assertions.assertEquals(nonZeroCount, section.getNonZeroCount());
+            }
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                Assertions.assertEquals(expected[i], section.get(i), "values=" + values);
+            }
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        PackedSection section = new PackedSection();
+        section.set(0, 0);
+        Assertions.assertTrue(section.isEmpty());
+        section.set(10, 5);
+        section.set(20, 5);
+        section.set(10, 0);
+        Assertions.assertFalse(section.isEmpty());
+        section.set(20, 0);
+        Assertions.assertTrue(section.isEmpty());
+        Assertions.assertEquals(0, section.get(20));
+    }
+}
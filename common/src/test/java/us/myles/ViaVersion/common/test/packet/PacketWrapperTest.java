@@ -0,0 +1,85 @@
+package us.myles.ViaVersion.common.test.packet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import us.myles.ViaVersion.api.PacketWrapper;
+import us.myles.ViaVersion.api.type.Type;
+
+public class PacketWrapperTest {
+    @Test
+    public void testGetSet() throws Exception {
+        PacketWrapper wrapper = new PacketWrapper(-1, null, null);
+        wrapper.write(Type.VAR_INT, 1);
+        wrapper.write(Type.STRING, "a");
+        wrapper.write(Type.VAR_INT, 2);
+        wrapper.write(Type.DOUBLE, 3.5D);
+
+        Assertions.assertEquals(1, (int) wrapper.get(Type.VAR_INT, 0));
+        Assertions.assertEquals(2, (int) wrapper.get(Type.VAR_INT, 1));
+        Assertions.assertEquals(3.5D, (double) wrapper.get(Type.DOUBLE, 0));
+        Assertions.assertTrue(wrapper.is(Type.STRING, 0));
+        Assertions.assertFalse(wrapper.is(Type.VAR_INT, 2));
+        Assertions.assertFalse(wrapper.is(Type.INT, 0));
+
+        wrapper.set(Type.VAR_INT, 1, 5);
+        wrapper.set(Type.STRING, 0, "b");
+        Assertions.assertEquals(5, (int) wrapper.get(Type.VAR_INT, 1));
+        Assertions.assertEquals("b", wrapper.get(Type.STRING, 0));
+    }
+
+    @Test
+    public void testResetReader() throws Exception {
+        ByteBuf input = Unpooled.buffer();
+        Type.VAR_INT.write(input, 300);
+        input.writeBoolean(true);
+        input.writeFloat(1.5F);
+
+        PacketWrapper wrapper = new PacketWrapper(-1, input, null);
+        wrapper.passthrough(Type.VAR_INT);
+        wrapper.write(Type.STRING, "test");
+        wrapper.resetReader();
+
+        // Next protocol
+        Assertions.assertEquals(300, (int) wrapper.read(Type.VAR_INT));
+        wrapper.write(Type.INT, 7);
+        // Unread values are kept when resetting
+        wrapper.resetReader();
+
+        Assertions.assertEquals(7, (int) wrapper.passthrough(Type.INT));
+        Assertions.assertEquals("test", wrapper.passthrough(Type.STRING));
+        Assertions.assertTrue(wrapper.passthrough(Type.BOOLEAN));
+
+        ByteBuf output = Unpooled.buffer();
+        wrapper.writeToBuffer(output);
+        Assertions.assertEquals(7, (int) Type.INT.read(output));
+        Assertions.assertEquals("test", Type.STRING.read(output));
+        Assertions.assertTrue(Type.BOOLEAN.read(output));
+        Assertions.assertEquals(1.5F, (float) Type.FLOAT.read(output));
+        Assertions.assertEquals(0, output.readableBytes());
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+        final PacketWrapper wrapper = PacketWrapper.obtain(1, null, null);
+        wrapper.write(Type.VAR_INT, 1);
+        wrapper.cancel();
+        wrapper.release();
+        Assertions.assertThrows(IllegalStateException.class, new Executable() {
+            @Override
+            public void execute() {
+                wrapper.release();
+            }
+        });
+
+        // Released wrappers are reused cleared
+        PacketWrapper reused = PacketWrapper.obtain(2, null, null);
+        Assertions.assertSame(wrapper, reused);
+        Assertions.assertEquals(2, reused.getId());
+        Assertions.assertFalse(reused.isCancelled());
+        Assertions.assertFalse(reused.is(Type.VAR_INT, 0));
+        reused.release();
+    }
+}
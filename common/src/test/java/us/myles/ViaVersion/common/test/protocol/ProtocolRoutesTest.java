@@ -0,0 +1,115 @@
+package us.myles.ViaVersion.common.test.protocol;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.Pair;
+import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.protocol.Protocol;
+import us.myles.ViaVersion.api.protocol.ProtocolRoutes;
+import us.myles.ViaVersion.api.protocol.ProtocolVersion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProtocolRoutesTest {
+    private final Map<Integer, Map<Integer, Protocol>> registry = new HashMap<>();
+
+    public ProtocolRoutesTest() {
+        // The built in protocols, as registered by ProtocolRegistry
+        register("1.9 to 1.8", Collections.singletonList(ProtocolVersion.v1_9), ProtocolVersion.v1_8);
+        register("1.9.1 to 1.9", Arrays.asList(ProtocolVersion.v1_9_1, ProtocolVersion.v1_9_2), ProtocolVersion.v1_9);
+        register("1.9.3 to 1.9.1/2", Collections.singletonList(ProtocolVersion.v1_9_3), ProtocolVersion.v1_9_2);
+        register("1.9 to 1.9.1", Collections.singletonList(ProtocolVersion.v1_9), ProtocolVersion.v1_9_2);
+        register("1.9.1/2 to 1.9.3/4", Arrays.asList(ProtocolVersion.v1_9_1, ProtocolVersion.v1_9_2), ProtocolVersion.v1_9_3);
+        register("1.10 to 1.9.3/4", Collections.singletonList(ProtocolVersion.v1_10), ProtocolVersion.v1_9_3);
+        register("1.11 to 1.10", Collections.singletonList(ProtocolVersion.v1_11), ProtocolVersion.v1_10);
+        register("1.11.1 to 1.11", Collections.singletonList(ProtocolVersion.v1_11_1), ProtocolVersion.v1_11);
+        register("1.12 to 1.11.1", Collections.singletonList(ProtocolVersion.v1_12), ProtocolVersion.v1_11_1);
+        register("1.12.1 to 1.12", Collections.singletonList(ProtocolVersion.v1_12_1), ProtocolVersion.v1_12);
+        register("1.12.2 to 1.12.1", Collections.singletonList(ProtocolVersion.v1_12_2), ProtocolVersion.v1_12_1);
+        register("1.13 to 1.12.2", Collections.singletonList(ProtocolVersion.v1_13), ProtocolVersion.v1_12_2);
+        register("1.13.1 to 1.13", Collections.singletonList(ProtocolVersion.v1_13_1), ProtocolVersion.v1_13);
+        register("1.13.2 to 1.13.1", Collections.singletonList(ProtocolVersion.v1_13_2), ProtocolVersion.v1_13_1);
+        register("1.14 to 1.13.2", Collections.singletonList(ProtocolVersion.v1_14), ProtocolVersion.v1_13_2);
+        register("1.14.1 to 1.14", Collections.singletonList(ProtocolVersion.v1_14_1), ProtocolVersion.v1_14);
+        register("1.14.2 to 1.14.1", Collections.singletonList(ProtocolVersion.v1_14_2), ProtocolVersion.v1_14_1);
+        register("1.14.3 to 1.14.2", Collections.singletonList(ProtocolVersion.v1_14_3), ProtocolVersion.v1_14_2);
+        register("1.14.4 to 1.14.3", Collections.singletonList(ProtocolVersion.v1_14_4), ProtocolVersion.v1_14_3);
+        register("1.15 to 1.14.4", Collections.singletonList(ProtocolVersion.v1_15), ProtocolVersion.v1_14_4);
+        register("1.15.1 to 1.15", Collections.singletonList(ProtocolVersion.v1_15_1), ProtocolVersion.v1_15);
+        register("1.15.2 to 1.15.1", Collections.singletonList(ProtocolVersion.v1_15_2), ProtocolVersion.v1_15_1);
+    }
+
+    @Test
+    public void testSamePathsAsDepthFirstSearch() {
+        // Every pair of versions gets the same path, as no protocol has a cost other than 1
+        Assertions.assertEquals(20, depthFirstPath(new ArrayList<Pair<Integer, Protocol>>(), ProtocolVersion.v1_15_2.getId(), ProtocolVersion.v1_8.getId()).size());
+        for (ProtocolVersion server : ProtocolVersion.getProtocols()) {
+            Map<Integer, List<Pair<Integer, Protocol>>> routes = ProtocolRoutes.calculate(registry, Collections.<Protocol, Integer>emptyMap(), server.getId());
+            for (ProtocolVersion client : ProtocolVersion.getProtocols()) {
+                List<Pair<Integer, Protocol>> expected = depthFirstPath(new ArrayList<Pair<Integer, Protocol>>(), client.getId(), server.getId());
+                Assertions.assertEquals(expected, routes.get(client.getId()), client + " to " + server);
+            }
+        }
+    }
+
+    private void register(final String name, List<ProtocolVersion> supported, ProtocolVersion output) {
+        Protocol protocol = new Protocol() {
+            @Override
+            protected void registerPackets() {
+            }
+
+            @Override
+            public void init(UserConnection userConnection) {
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+        for (ProtocolVersion version : supported) {
+            if (!registry.containsKey(version.getId())) {
+                registry.put(version.getId(), new HashMap<Integer, Protocol>());
+            }
+            registry.get(version.getId()).put(output.getId(), protocol);
+        }
+    }
+
+    // The recursive search ProtocolRegistry used before the routes were calculated by ProtocolRoutes
+    private List<Pair<Integer, Protocol>> depthFirstPath(List<Pair<Integer, Protocol>> current, int clientVersion, int serverVersion) {
+        if (clientVersion == serverVersion) return null; // We're already there
+        if (current.size() > 50) return null; // Fail safe, protocol too complicated.
+
+        Map<Integer, Protocol> inputMap = registry.get(clientVersion);
+        if (inputMap == null) {
+            return null; // Not supported
+        }
+        Protocol protocol = inputMap.get(serverVersion);
+        if (protocol != null) {
+            current.add(new Pair<>(serverVersion, protocol));
+            return current;
+        }
+        List<Pair<Integer, Protocol>> shortest = null;
+        for (Map.Entry<Integer, Protocol> entry : inputMap.entrySet()) {
+            if (!entry.getKey().equals(serverVersion)) {
+                Pair<Integer, Protocol> pair = new Pair<>(entry.getKey(), entry.getValue());
+                if (!current.contains(pair)) {
+                    List<Pair<Integer, Protocol>> newCurrent = new ArrayList<>(current);
+                    newCurrent.add(pair);
+                    newCurrent = depthFirstPath(newCurrent, entry.getKey(), serverVersion);
+                    if (newCurrent != null) {
+                        if (shortest == null || shortest.size() > newCurrent.size()) {
+                            shortest = newCurrent;
+                        }
+                    }
+                }
+            }
+        }
+        return shortest;
+    }
+}
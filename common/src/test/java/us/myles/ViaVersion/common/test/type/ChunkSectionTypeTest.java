@@ -0,0 +1,163 @@
+package us.myles.ViaVersion.common.test.type;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.minecraft.chunks.BlockStateRewriter;
+import us.myles.ViaVersion.api.minecraft.chunks.ChunkSection;
+import us.myles.ViaVersion.api.type.types.version.ChunkSectionType1_13;
+import us.myles.ViaVersion.api.type.types.version.ChunkSectionType1_8;
+import us.myles.ViaVersion.api.type.types.version.ChunkSectionType1_9;
+import us.myles.ViaVersion.api.type.types.version.Types1_13;
+import us.myles.ViaVersion.api.type.types.version.Types1_8;
+import us.myles.ViaVersion.api.type.types.version.Types1_9;
+import us.myles.ViaVersion.util.CompactArrayUtil;
+
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class ChunkSectionTypeTest {
+    @Test
+    public void testCompactArray() {
+        Random random = new Random(0);
+        for (int bits = 1; bits <= 32; bits++) {
+            int[] values = new int[ChunkSection.SIZE];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (int) (random.nextLong() & ((1L << bits) - 1));
+            }
+
+            ByteBuf buffer = Unpooled.buffer();
+            CompactArrayUtil.write(buffer, bits, values);
+            long[] expected = pack(bits, values);
+            Assertions.assertEquals(expected.length * 8, buffer.readableBytes());
+            for (int i = 0; i < expected.length; i++) {
+                Assertions.assertEquals(expected[i], buffer.getLong(i * 8), "bits=" + bits + ", long " + i);
+            }
+
+            int[] read = new int[values.length];
+            CompactArrayUtil.read(buffer, bits, read);
+            Assertions.assertArrayEquals(values, read, "bits=" + bits);
+            Assertions.assertEquals(0, buffer.readableBytes());
+        }
+    }
+
+    @Test
+    public void testSection1_13() throws Exception {
+        // Palettes of every size which is written with 4 to 8 bits, and one which needs the global palette
+        int[] paletteSizes = {1, 16, 17, 40, 100, 200, 256, 300};
+        Random random = new Random(0);
+        for (int paletteSize : paletteSizes) {
+            ChunkSection section = new ChunkSection();
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                section.setFlatBlock(i, i < paletteSize ? i * 7 : random.nextInt(paletteSize) * 7);
+            }
+
+            ByteBuf buffer = Unpooled.buffer();
+            Types1_13.CHUNK_SECTION.write(buffer, section);
+            ChunkSection read = Types1_13.CHUNK_SECTION.read(buffer);
+            Assertions.assertEquals(0, buffer.readableBytes());
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                Assertions.assertEquals(section.getFlatBlock(i), read.getFlatBlock(i), "paletteSize=" + paletteSize);
+            }
+        }
+    }
+
+    @Test
+    public void testRewriteBlockStates() throws Exception {
+        BlockStateRewriter rewriter = new BlockStateRewriter() {
+            @Override
+            public int getNewBlockStateId(int blockStateId) {
+                return blockStateId * 3 + 1000;
+            }
+        };
+        Random random = new Random(0);
+        for (int paletteSize : new int[]{5, 300}) {
+            ChunkSection section = new ChunkSection();
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                section.setFlatBlock(i, random.nextInt(paletteSize));
+            }
+            ByteBuf input = Unpooled.buffer();
+            Types1_13.CHUNK_SECTION.write(input, section);
+
+            ByteBuf output = Unpooled.buffer();
+            ChunkSectionType1_13.rewriteBlockStates(input, output, rewriter);
+            Assertions.assertEquals(0, input.readableBytes());
+            ChunkSection read = Types1_13.CHUNK_SECTION.read(output);
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                Assertions.assertEquals(rewriter.getNewBlockStateId(section.getFlatBlock(i)), read.getFlatBlock(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        ByteBuf buffer = Unpooled.buffer();
+        for (int paletteSize : new int[]{1, 20, 300}) {
+            ChunkSection section = new ChunkSection();
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                section.setFlatBlock(i, i % paletteSize);
+            }
+            Types1_13.CHUNK_SECTION.write(buffer, section);
+        }
+        buffer.writeByte(42);
+
+        for (int i = 0; i < 3; i++) {
+            ChunkSectionType1_13.skip(buffer);
+        }
+        Assertions.assertEquals(42, buffer.readByte());
+        Assertions.assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testTranscode1_8() throws Exception {
+        Random random = new Random(0);
+        for (int paletteSize : new int[]{1, 16, 300}) {
+            ByteBuf input = Unpooled.buffer();
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                int id = random.nextInt(paletteSize) * 16 + 1;
+                input.writeByte(id);
+                input.writeByte(id >> 8);
+            }
+
+            // Read one block at a time like before
+            ChunkSection expected = new ChunkSection();
+            for (int i = 0; i < ChunkSection.SIZE; i++) {
+                int mask = input.order(ByteOrder.LITTLE_ENDIAN).getShort(i * 2);
+                expected.setBlock(i, mask >> 4, mask & 0xF);
+            }
+            ByteBuf expectedOutput = Unpooled.buffer();
+            Types1_9.CHUNK_SECTION.write(expectedOutput, expected);
+
+            ByteBuf sectionOutput = Unpooled.buffer();
+            Types1_9.CHUNK_SECTION.write(sectionOutput, Types1_8.CHUNK_SECTION.read(input.duplicate()));
+            Assertions.assertTrue(ByteBufUtil.equals(expectedOutput, sectionOutput), "paletteSize=" + paletteSize);
+
+            int[] palette = new int[ChunkSection.SIZE + 1];
+            int[] indexes = new int[ChunkSection.SIZE];
+            ByteBuf output = Unpooled.buffer();
+            ChunkSectionType1_9.write(output, palette, ChunkSectionType1_8.readPalette(input, palette, indexes), indexes);
+            Assertions.assertTrue(ByteBufUtil.equals(expectedOutput, output), "paletteSize=" + paletteSize);
+        }
+    }
+
+    // The per value packing the chunk types used before
+    private static long[] pack(int bits, int[] values) {
+        long maxEntryValue = (1L << bits) - 1;
+        long[] data = new long[(int) Math.ceil(values.length * bits / 64.0)];
+        for (int index = 0; index < values.length; index++) {
+            int value = values[index];
+            int bitIndex = index * bits;
+            int startIndex = bitIndex / 64;
+            int endIndex = ((index + 1) * bits - 1) / 64;
+            int startBitSubIndex = bitIndex % 64;
+            data[startIndex] = data[startIndex] & ~(maxEntryValue << startBitSubIndex) | ((long) value & maxEntryValue) << startBitSubIndex;
+            if (startIndex != endIndex) {
+                int endBitSubIndex = 64 - startBitSubIndex;
+                data[endIndex] = data[endIndex] >>> endBitSubIndex << endBitSubIndex | ((long) value & maxEntryValue) >> endBitSubIndex;
+            }
+        }
+        return data;
+    }
+}
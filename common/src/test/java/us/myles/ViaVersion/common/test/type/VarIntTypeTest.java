@@ -0,0 +1,50 @@
+package us.myles.ViaVersion.common.test.type;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.api.type.Type;
+import us.myles.ViaVersion.api.type.types.VarIntType;
+
+public class VarIntTypeTest {
+    @Test
+    public void testVarIntWrite() {
+        // Check every length against the byte by byte encoding
+        int[] values = {0, 1, 127, 128, 300, 16383, 16384, 2097151, 2097152, 268435455, 268435456, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        for (int value : values) {
+            ByteBuf buffer = Unpooled.buffer();
+            Type.VAR_INT_PRIMITIVE.writePrimitive(buffer, value);
+            Assertions.assertArrayEquals(encode(value), toArray(buffer));
+            Assertions.assertEquals(buffer.readableBytes(), VarIntType.getLength(value));
+            Assertions.assertEquals(value, Type.VAR_INT_PRIMITIVE.readPrimitive(buffer));
+        }
+    }
+
+    @Test
+    public void testVarLong() {
+        long[] values = {0, 300, Integer.MAX_VALUE, 1L << 40, Long.MAX_VALUE, -1};
+        for (long value : values) {
+            ByteBuf buffer = Unpooled.buffer();
+            Type.VAR_LONG_PRIMITIVE.writePrimitive(buffer, value);
+            Assertions.assertEquals(value, Type.VAR_LONG_PRIMITIVE.readPrimitive(buffer));
+            Assertions.assertEquals(0, buffer.readableBytes());
+        }
+    }
+
+    private static byte[] encode(int value) {
+        ByteBuf buffer = Unpooled.buffer();
+        do {
+            int part = value & 0x7F;
+            value >>>= 7;
+            buffer.writeByte(value != 0 ? part | 0x80 : part);
+        } while (value != 0);
+        return toArray(buffer);
+    }
+
+    private static byte[] toArray(ByteBuf buffer) {
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,71 @@
+package us.myles.ViaVersion.common.test.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import us.myles.ViaVersion.util.IntObjectMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntObjectMapTest {
+    @Test
+    public void testRandomChanges() {
+        // Compare against a HashMap, with few keys so removals often have to shift colliding entries
+        Random random = new Random(0);
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(200) - 100;
+            if (random.nextBoolean()) {
+                String value = Integer.toString(i);
+                Assertions.assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (int key = -100; key < 100; key++) {
+            Assertions.assertEquals(expected.get(key), map.get(key));
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+    }
+
+    @Test
+    public void testRemoveAll() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Integer[] keys = new Integer[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 7;
+            map.put(i * 7, "entity");
+        }
+        map.put(-1, "player");
+        long memoryUsage = map.getMemoryUsage();
+
+        map.removeAll(keys);
+        Assertions.assertEquals(1, map.size());
+        Assertions.assertEquals("player", map.get(-1));
+        Assertions.assertNull(map.get(7));
+        // The tables shrink again
+        Assertions.assertTrue(map.getMemoryUsage() < memoryUsage);
+    }
+
+    @Test
+    public void testMapView() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> view = map.asMap();
+        view.put(3, "three");
+        map.put(-5, "minus five");
+
+        Map<Integer, String> expected = new HashMap<>();
+        expected.put(3, "three");
+        expected.put(-5, "minus five");
+        Assertions.assertEquals(expected, view);
+        Assertions.assertEquals(expected, new HashMap<>(view));
+
+        Assertions.assertEquals("three", view.remove(3));
+        Assertions.assertNull(view.get("three"));
+        Assertions.assertFalse(map.containsKey(3));
+        Assertions.assertEquals(1, view.size());
+    }
+}
@@ -9,6 +9,7 @@ import us.myles.ViaVersion.api.boss.BossBar;
 import us.myles.ViaVersion.api.boss.BossColor;
 import us.myles.ViaVersion.api.boss.BossStyle;
 import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.protocol.PacketStats;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 
@@ -73,6 +74,11 @@ public class SpongeViaAPI implements ViaAPI<Player> {
         return outputSet;
     }
 
+    @Override
+    public PacketStats getPacketStats() {
+        return Via.getManager().getPacketStats();
+    }
+
     public Map<UUID, UserConnection> getPortedPlayers() {
         return Via.getManager().getPortedPlayers();
     }
@@ -52,25 +52,32 @@ public class VelocityEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
 
 
         if (info.isActive()) {
-            // Handle ID
-            int id = Type.VAR_INT.read(bytebuf);
-            // Transform
-            ByteBuf newPacket = bytebuf.alloc().buffer();
-            try {
-                PacketWrapper wrapper = new PacketWrapper(id, bytebuf, info);
-                ProtocolInfo protInfo = info.get(ProtocolInfo.class);
-                protInfo.getPipeline().transform(Direction.OUTGOING, protInfo.getState(), wrapper);
+            ProtocolInfo protInfo = info.get(ProtocolInfo.class);
+            // Packets of which only the id changes are rewritten in place
+            if (!protInfo.getPipeline().transformPassthrough(Direction.OUTGOING, protInfo.getState(), bytebuf)) {
+                // Handle ID
+                int id = Type.VAR_INT_PRIMITIVE.readPrimitive(bytebuf);
+                // Transform
+                ByteBuf newPacket = bytebuf.alloc().buffer();
+                try {
+                    PacketWrapper wrapper = PacketWrapper.obtain(id, bytebuf, info);
+                    try {
+                        protInfo.getPipeline().transform(Direction.OUTGOING, protInfo.getState(), wrapper);
 
-                wrapper.writeToBuffer(newPacket);
+                        wrapper.writeToBuffer(newPacket);
+                    } finally {
+                        wrapper.release();
+                    }
 
-                bytebuf.clear();
-                bytebuf.release();
-                bytebuf = newPacket;
-            } catch (Throwable e) {
-                bytebuf.clear();
-                bytebuf.release();
-                newPacket.release();
-                throw e;
+                    bytebuf.clear();
+                    bytebuf.release();
+                    bytebuf = newPacket;
+                } catch (Throwable e) {
+                    bytebuf.clear();
+                    bytebuf.release();
+                    newPacket.release();
+                    throw e;
+                }
             }
         }
 
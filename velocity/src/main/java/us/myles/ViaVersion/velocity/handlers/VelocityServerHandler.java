@@ -125,19 +125,14 @@ public class VelocityServerHandler {
                         List<Pair<Integer, Protocol>> protocols = ProtocolRegistry.getProtocolPath(info.getProtocolVersion(), protocolId);
                         ProtocolPipeline pipeline = user.get(ProtocolInfo.class).getPipeline();
                         user.clearStoredObjects();
-                        pipeline.cleanPipes();
                         if (protocols == null) {
                             // TODO Check Bungee Supported Protocols? *shrugs*
                             protocolId = info.getProtocolVersion();
-                        } else {
-                            for (Pair<Integer, Protocol> prot : protocols) {
-                                pipeline.add(prot.getValue());
-                            }
                         }
 
                         info.setServerProtocolVersion(protocolId);
-                        // Add version-specific base Protocol
-                        pipeline.add(ProtocolRegistry.getBaseProtocol(protocolId));
+                        // Use the shared pipes, including the version-specific base Protocol
+                        pipeline.setProtocols(info.getProtocolVersion(), protocolId);
 
                         Collection<String> knownChannels = (Collection<String>) getKnownChannels.invoke(e.getPlayer());
                         if (previousServerProtocol != -1) {
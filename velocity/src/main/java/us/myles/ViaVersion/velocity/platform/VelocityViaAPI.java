@@ -12,6 +12,7 @@ import us.myles.ViaVersion.api.boss.BossBar;
 import us.myles.ViaVersion.api.boss.BossColor;
 import us.myles.ViaVersion.api.boss.BossStyle;
 import us.myles.ViaVersion.api.data.UserConnection;
+import us.myles.ViaVersion.api.protocol.PacketStats;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
 import us.myles.ViaVersion.protocols.base.ProtocolInfo;
 
@@ -79,6 +80,11 @@ public class VelocityViaAPI implements ViaAPI<Player> {
         return outputSet;
     }
 
+    @Override
+    public PacketStats getPacketStats() {
+        return Via.getManager().getPacketStats();
+    }
+
     public Map<UUID, UserConnection> getPortedPlayers() {
         return Via.getManager().getPortedPlayers();
     }
@@ -353,4 +353,19 @@ public class VelocityViaConfig extends Config implements ViaVersionConfig {
     public boolean is1_15InstantRespawn() {
         return getBoolean("use-1_15-instant-respawn", false);
     }
+
+    @Override
+    public boolean isPacketStats() {
+        return getBoolean("packet-stats", false);
+    }
+
+    @Override
+    public int getTranslatedChunkCacheSize() {
+        return getInt("translated-chunk-cache", 0);
+    }
+
+    @Override
+    public int getChunkTranslationThreads() {
+        return getInt("chunk-translation-threads", 0);
+    }
 }